@@ -0,0 +1,105 @@
+package rv.httpclient.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           In-process server the benchmarks run against, on a free loopback
+ *           port. Serves fixed bodies so that only the client is measured:
+ *           {@code /small} and {@code /large} JSON, {@code /xml} and
+ *           {@code /echo}, which reads the request body and answers a small
+ *           JSON object.
+ *           </p>
+ *
+ */
+final class BenchServer implements AutoCloseable {
+
+	static final byte[] SMALL_JSON = "{\"id\":42,\"name\":\"benchmark\",\"active\":true,\"tags\":[\"a\",\"b\",\"c\"]}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	static final byte[] LARGE_JSON = largeJson(1000);
+
+	static final byte[] XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><item><id>42</id><name>benchmark</name></item>"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] OK = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	BenchServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+		executor = Executors.newFixedThreadPool(4, r -> {
+			final Thread thread = new Thread(r, "bench-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/small", exchange -> respond(exchange, SMALL_JSON, "application/json"));
+		server.createContext("/large", exchange -> respond(exchange, LARGE_JSON, "application/json"));
+		server.createContext("/xml", exchange -> respond(exchange, XML, "application/xml"));
+		server.createContext("/echo", exchange -> {
+			drain(exchange.getRequestBody());
+			respond(exchange, OK, "application/json");
+		});
+		server.start();
+	}
+
+	/** Base URL without a trailing slash. */
+	String url() {
+		return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private static void respond(final HttpExchange exchange, final byte[] body, final String contentType)
+			throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, body.length);
+		final OutputStream os = exchange.getResponseBody();
+		os.write(body);
+		os.close();
+	}
+
+	private static void drain(final InputStream stream) throws IOException {
+		final byte[] buffer = new byte[8192];
+		while (stream.read(buffer) != -1) {
+			// discard
+		}
+		stream.close();
+	}
+
+	private static byte[] largeJson(final int items) {
+		final StringBuilder sb = new StringBuilder("{\"items\":[");
+		for (int i = 0; i < items; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+					.append("\",\"price\":").append(i * 1.25).append(",\"available\":").append(i % 2 == 0)
+					.append('}');
+		}
+		return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+}
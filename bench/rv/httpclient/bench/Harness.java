@@ -0,0 +1,181 @@
+package rv.httpclient.bench;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Minimal benchmark runner: a few timed warmup iterations, then
+ *           timed measurement iterations of which the average time and the
+ *           bytes allocated per operation are reported. Allocation is read
+ *           from the thread's allocation counter, the figure JMH reports as
+ *           {@code gc.alloc.rate.norm} with {@code -prof gc}.
+ *           </p>
+ *
+ */
+final class Harness {
+
+	/** One operation, its result is consumed so it cannot be optimized away. */
+	interface Benchmark {
+		Object run() throws Exception;
+	}
+
+	private final int warmups;
+
+	private final int iterations;
+
+	private final long iterationNanos;
+
+	private volatile int sink;
+
+	Harness(int warmups, int iterations, long iterationMillis) {
+		this.warmups = warmups;
+		this.iterations = iterations;
+		this.iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+	}
+
+	Result measure(final String name, final Benchmark benchmark) {
+		try {
+			for (int i = 0; i < warmups; i++) {
+				iteration(benchmark);
+			}
+			long ops = 0;
+			long nanos = 0;
+			long bytes = 0;
+			for (int i = 0; i < iterations; i++) {
+				final long allocated = allocated();
+				final long start = System.nanoTime();
+				final long n = iteration(benchmark);
+				nanos += System.nanoTime() - start;
+				bytes += allocated() - allocated;
+				ops += n;
+			}
+			return new Result(name, (double) nanos / ops, allocated() < 0 ? -1 : (double) bytes / ops, null);
+		} catch (Exception e) {
+			return new Result(name, -1, -1, e.toString());
+		}
+	}
+
+	private long iteration(final Benchmark benchmark) throws Exception {
+		final long end = System.nanoTime() + iterationNanos;
+		long ops = 0;
+		int h = 0;
+		do {
+			final Object result = benchmark.run();
+			h += result != null ? result.hashCode() : 0;
+			ops++;
+		} while (System.nanoTime() < end);
+		sink += h;
+		return ops;
+	}
+
+	/** Bytes allocated by this thread so far, -1 if the JVM does not count them. */
+	private static long allocated() {
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	static void save(final List<Result> results, final File file) throws IOException {
+		final Properties baseline = new Properties();
+		for (Result result : results) {
+			if (result.error == null) {
+				baseline.setProperty(result.name + ".nsPerOp", String.format("%.1f", result.nanosPerOp));
+				baseline.setProperty(result.name + ".bytesPerOp", String.format("%.1f", result.bytesPerOp));
+			}
+		}
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		final OutputStream os = new FileOutputStream(file);
+		try {
+			baseline.store(os, "rv.httpclient benchmark baseline, " + System.getProperty("java.version"));
+		} finally {
+			os.close();
+		}
+	}
+
+	/***
+	 * Compares results with a saved baseline and prints the difference.
+	 *
+	 * @param tolerance
+	 *            - allowed slowdown or extra allocation, 0.2 for 20 percent
+	 * @return number of benchmarks that got worse beyond the tolerance
+	 */
+	static int compare(final List<Result> results, final File file, final double tolerance) throws IOException {
+		final Properties baseline = new Properties();
+		final InputStream is = new FileInputStream(file);
+		try {
+			baseline.load(is);
+		} finally {
+			is.close();
+		}
+		int regressions = 0;
+		System.out.println();
+		System.out.println(String.format("%-24s %14s %14s %14s %14s", "Compared to " + file.getName(), "ns/op",
+				"baseline", "B/op", "baseline"));
+		for (Result result : results) {
+			final String ns = baseline.getProperty(result.name + ".nsPerOp");
+			if (result.error != null || ns == null) {
+				continue;
+			}
+			final double baseNanos = Double.parseDouble(ns);
+			final double baseBytes = Double.parseDouble(baseline.getProperty(result.name + ".bytesPerOp", "-1"));
+			// a few bytes per op come and go with the JIT, only larger growth counts
+			final boolean slower = result.nanosPerOp > baseNanos * (1 + tolerance);
+			final boolean heavier = baseBytes >= 0 && result.bytesPerOp > baseBytes * (1 + tolerance) + 64;
+			if (slower || heavier) {
+				regressions++;
+			}
+			System.out.println(String.format("%-24s %14.1f %14.1f %14.1f %14.1f%s", result.name, result.nanosPerOp,
+					baseNanos, result.bytesPerOp, baseBytes, slower || heavier ? "  REGRESSION" : ""));
+		}
+		return regressions;
+	}
+
+	static final class Result {
+
+		final String name;
+
+		final double nanosPerOp;
+
+		final double bytesPerOp;
+
+		final String error;
+
+		private Result(String name, double nanosPerOp, double bytesPerOp, String error) {
+			this.name = name;
+			this.nanosPerOp = nanosPerOp;
+			this.bytesPerOp = bytesPerOp;
+			this.error = error;
+		}
+
+		@Override
+		public String toString() {
+			if (error != null) {
+				return String.format("%-24s failed: %s", name, error);
+			}
+			return String.format("%-24s %14.1f %14.1f", name, nanosPerOp, bytesPerOp);
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+package rv.httpclient.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import rv.httpclient.HttpConnection;
+import rv.httpclient.HttpGet;
+import rv.httpclient.HttpPost;
+import rv.httpclient.HttpResponse;
+import rv.httpclient.QueryParams;
+import rv.httpclient.RequestBody;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Benchmarks of the request path against an in-process
+ *           {@link BenchServer}, and of response parsing and URL building on
+ *           their own so that they are not hidden by loopback latency. Run
+ *           with the library, Gson and JAXB on the class path:
+ *           </p>
+ *
+ *           <pre>
+ * java -cp build/classes:build/bench-classes:lib/* rv.httpclient.bench.HttpClientBenchmarks
+ *      [-w warmups] [-i iterations] [-t millis] [-save file] [-compare file] [-tolerance percent] [name...]
+ *           </pre>
+ *           <p>
+ *           Each benchmark reports the average time and the bytes allocated
+ *           per operation. {@code -save} stores the results as a baseline,
+ *           by default in {@code build/bench-baseline.properties}, and
+ *           {@code -compare} checks a later run against it, exiting with 1 if
+ *           a benchmark got slower or allocates more than the tolerance, 20
+ *           percent by default. Baselines are only comparable on the same
+ *           machine and JVM.
+ *           </p>
+ *
+ */
+public final class HttpClientBenchmarks {
+
+	private static final String DEFAULT_BASELINE = "build/bench-baseline.properties";
+
+	/** Body of the XML benchmarks. */
+	@XmlRootElement(name = "item")
+	public static final class Item {
+
+		public int id;
+
+		public String name;
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+	}
+
+	private HttpClientBenchmarks() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int warmups = 3;
+		int iterations = 5;
+		long millis = 1000;
+		File save = null;
+		File compare = null;
+		double tolerance = 0.2;
+		final List<String> names = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-w":
+				warmups = Integer.parseInt(args[++i]);
+				break;
+			case "-i":
+				iterations = Integer.parseInt(args[++i]);
+				break;
+			case "-t":
+				millis = Long.parseLong(args[++i]);
+				break;
+			case "-save":
+				save = new File(i + 1 < args.length && !args[i + 1].startsWith("-") ? args[++i] : DEFAULT_BASELINE);
+				break;
+			case "-compare":
+				compare = new File(i + 1 < args.length && !args[i + 1].startsWith("-") ? args[++i] : DEFAULT_BASELINE);
+				break;
+			case "-tolerance":
+				tolerance = Double.parseDouble(args[++i]) / 100;
+				break;
+			default:
+				names.add(args[i]);
+			}
+		}
+
+		final Harness harness = new Harness(warmups, iterations, millis);
+		final List<Harness.Result> results = new ArrayList<Harness.Result>();
+		try (BenchServer server = new BenchServer()) {
+			final Map<String, Harness.Benchmark> benchmarks = benchmarks(server.url());
+			System.out.println(String.format("%-24s %14s %14s", "Benchmark", "ns/op", "B/op"));
+			for (Map.Entry<String, Harness.Benchmark> benchmark : benchmarks.entrySet()) {
+				if (names.isEmpty() || names.contains(benchmark.getKey())) {
+					final Harness.Result result = harness.measure(benchmark.getKey(), benchmark.getValue());
+					System.out.println(result);
+					results.add(result);
+				}
+			}
+		}
+		if (save != null) {
+			Harness.save(results, save);
+			System.out.println("Baseline saved to " + save);
+		}
+		if (compare != null && Harness.compare(results, compare, tolerance) > 0) {
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Harness.Benchmark> benchmarks(final String url) throws Exception {
+		final Map<String, Harness.Benchmark> benchmarks = new LinkedHashMap<String, Harness.Benchmark>();
+		final HttpGet get = new HttpGet();
+		final HttpPost post = new HttpPost();
+		final String small = new String(BenchServer.SMALL_JSON, "UTF-8");
+		final byte[] large = new byte[1024 * 1024];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) ('a' + i % 26);
+		}
+		final HttpConnection connection = new HttpConnection();
+		final Map<String, String> queryParams = new LinkedHashMap<String, String>();
+		queryParams.put("q", "http client");
+		queryParams.put("page", "2");
+		queryParams.put("size", "50");
+		queryParams.put("sort", "name,asc");
+		queryParams.put("filter", "active");
+
+		benchmarks.put("get", () -> get.execute(url + "/small").getBytes());
+		benchmarks.put("getJson", () -> get.execute(url + "/small").getJson());
+		benchmarks.put("getJsonLarge", () -> get.execute(url + "/large").getJson());
+		benchmarks.put("getXML", () -> get.execute(url + "/xml").getXML(Item.class));
+		benchmarks.put("postSmall", () -> post.execute(url + "/echo", null, small).getBytes());
+		benchmarks.put("postLarge", () -> post.execute(url + "/echo", null, RequestBody.of(large)).getBytes());
+		benchmarks.put("parseJson", () -> response(BenchServer.SMALL_JSON).getJson());
+		benchmarks.put("parseJsonLarge", () -> response(BenchServer.LARGE_JSON).getJson());
+		benchmarks.put("parseXML", () -> response(BenchServer.XML).getXML(Item.class));
+		benchmarks.put("queryParams", () -> connection.constructGetURLWithQueryParams(url + "/search", queryParams));
+		final QueryParams query = QueryParams.of(queryParams);
+		final StringBuilder buffer = new StringBuilder(256);
+		benchmarks.put("queryString", () -> {
+			buffer.setLength(0);
+			return query.appendTo(buffer).length();
+		});
+		return benchmarks;
+	}
+
+	/** Response as the client builds it, without the network. */
+	private static HttpResponse response(final byte[] body) throws Exception {
+		final HttpResponse response = new HttpResponse();
+		response.setResponseCode(200);
+		response.setResponseDate(new ByteArrayInputStream(body));
+		return response;
+	}
+
+}
@@ -0,0 +1,311 @@
+package rv.httpclient;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rv.httpclient.ConnectionPool.Route;
+import rv.httpclient.util.ResponseCode;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Batch started by {@link HttpBatch}. Every request is reported
+ *           exactly once by {@link #next()}, in the order the requests
+ *           complete. A request is started whenever one completes, so the
+ *           batch keeps as many requests in flight as its limits allow.
+ *           </p>
+ *
+ */
+public final class BatchExecution {
+
+	private final int size;
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	private final int maxPerHost;
+
+	/** Hosts with requests in flight or waiting, in the order they take turns. */
+	private final LinkedHashMap<Route, Host> hosts = new LinkedHashMap<Route, Host>();
+
+	private final Set<Item> running = new LinkedHashSet<Item>();
+
+	private final LinkedBlockingQueue<BatchResult> results = new LinkedBlockingQueue<BatchResult>();
+
+	/** Results not yet taken by a caller of {@link #next()}. */
+	private final AtomicInteger remaining;
+
+	private int active;
+
+	private volatile HttpClientException cancelled;
+
+	private Future<?> deadline;
+
+	/** Whether a thread is starting requests, it picks up the slots others free meanwhile. */
+	private boolean dispatching;
+
+	BatchExecution(List<Item> items, Executor executor, int maxConcurrency, int maxPerHost) {
+		this.size = items.size();
+		this.executor = executor;
+		this.maxConcurrency = maxConcurrency;
+		this.maxPerHost = maxPerHost;
+		this.remaining = new AtomicInteger(items.size());
+		for (Item item : items) {
+			try {
+				item.target = item.request.resolve(item.values);
+			} catch (HttpClientException e) {
+				report(item, null, e);
+				continue;
+			}
+			final Route route = Route.of(item.target);
+			Host host = hosts.get(route);
+			if (host == null) {
+				host = new Host(route);
+				hosts.put(route, host);
+			}
+			host.pending.add(item);
+		}
+	}
+
+	/** Number of requests in the batch. */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Waits for the next request to complete.
+	 *
+	 * @return result of the request, null once every request was reported
+	 * @throws HttpClientException
+	 *             if interrupted while waiting
+	 */
+	public BatchResult next() throws HttpClientException {
+		int n;
+		do {
+			n = remaining.get();
+			if (n == 0) {
+				return null;
+			}
+		} while (!remaining.compareAndSet(n, n - 1));
+		try {
+			return results.take();
+		} catch (InterruptedException e) {
+			remaining.incrementAndGet();
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Interrupted while waiting for the batch.", e);
+		}
+	}
+
+	/** Collects the results of the requests not yet reported, in completion order. */
+	public List<BatchResult> awaitAll() throws HttpClientException {
+		final List<BatchResult> all = new ArrayList<BatchResult>(remaining.get());
+		BatchResult result;
+		while ((result = next()) != null) {
+			all.add(result);
+		}
+		return all;
+	}
+
+	/**
+	 * Stops the batch. Requests still in flight are aborted, the ones still
+	 * waiting are not started, both are reported as failed.
+	 */
+	public void cancel() {
+		cancel(new HttpClientException(ResponseCode.RUNTIME_ERROR, "Batch was cancelled."));
+	}
+
+	/** Whether the batch was cancelled or ran past its deadline. */
+	public boolean isCancelled() {
+		return cancelled != null;
+	}
+
+	synchronized void setDeadline(final Future<?> deadline) {
+		if (hosts.isEmpty()) {
+			// every request already failed to resolve, the batch is done
+			deadline.cancel(false);
+		} else {
+			this.deadline = deadline;
+		}
+	}
+
+	void cancel(final HttpClientException reason) {
+		final List<Item> waiting = new ArrayList<Item>();
+		final List<Item> inFlight;
+		synchronized (this) {
+			if (cancelled != null) {
+				return;
+			}
+			cancelled = reason;
+			for (Host host : hosts.values()) {
+				waiting.addAll(host.pending);
+				host.pending.clear();
+			}
+			inFlight = new ArrayList<Item>(running);
+		}
+		for (Item item : waiting) {
+			report(item, null, reason);
+		}
+		for (Item item : inFlight) {
+			final CompletableFuture<HttpResponse> future = item.future;
+			if (future != null) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Starts waiting requests as long as the limits allow. A request that
+	 * completes while being started, e.g. rejected by the executor, leaves its
+	 * slot to the loop here instead of dispatching again from inside
+	 * {@link #start(Item)}, so a large batch does not grow the stack.
+	 */
+	void dispatch() {
+		synchronized (this) {
+			if (dispatching) {
+				// the thread dispatching looks for free slots again before it stops
+				return;
+			}
+			dispatching = true;
+		}
+		final List<Item> ready = new ArrayList<Item>();
+		while (true) {
+			synchronized (this) {
+				ready.clear();
+				while (cancelled == null && active < maxConcurrency) {
+					final Host host = nextHost();
+					if (host == null) {
+						break;
+					}
+					final Item item = host.pending.poll();
+					host.active++;
+					active++;
+					running.add(item);
+					ready.add(item);
+				}
+				if (ready.isEmpty()) {
+					dispatching = false;
+					return;
+				}
+			}
+			for (Item item : ready) {
+				start(item);
+			}
+		}
+	}
+
+	/** First host in turn with a free slot, moved to the back of the line. */
+	private Host nextHost() {
+		final Iterator<Host> it = hosts.values().iterator();
+		while (it.hasNext()) {
+			final Host host = it.next();
+			if (!host.pending.isEmpty() && host.active < maxPerHost) {
+				it.remove();
+				hosts.put(host.route, host);
+				return host;
+			}
+		}
+		return null;
+	}
+
+	private void start(final Item item) {
+		final CompletableFuture<HttpResponse> future = item.request.executeAsync(item.target, executor);
+		item.future = future;
+		if (cancelled != null) {
+			future.cancel(true);
+		}
+		future.whenComplete((response, failure) -> complete(item, response, failure));
+	}
+
+	private void complete(final Item item, final HttpResponse response, final Throwable failure) {
+		final boolean done;
+		synchronized (this) {
+			if (!running.remove(item)) {
+				return;
+			}
+			active--;
+			final Route route = Route.of(item.target);
+			final Host host = hosts.get(route);
+			if (--host.active == 0 && host.pending.isEmpty()) {
+				hosts.remove(route);
+			}
+			done = hosts.isEmpty();
+			if (done && deadline != null) {
+				deadline.cancel(false);
+			}
+		}
+		if (failure == null) {
+			report(item, response, null);
+		} else if (failure instanceof CancellationException && cancelled != null) {
+			report(item, null, cancelled);
+		} else if (failure instanceof HttpClientException) {
+			report(item, null, (HttpClientException) failure);
+		} else {
+			report(item, null, new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to execute HttpRequest.",
+					failure));
+		}
+		if (!done) {
+			dispatch();
+		}
+	}
+
+	private void report(final Item item, final HttpResponse response, final HttpClientException exception) {
+		results.offer(new BatchResult(item.index, item.request, item.values, response, exception));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("BatchExecution [size=%s, active=%s, hosts=%s, reported=%s, cancelled=%s]", size, active,
+				hosts.size(), size - remaining.get() + results.size(), cancelled != null);
+	}
+
+	static final class Item {
+
+		private final int index;
+
+		private final PreparedRequest request;
+
+		private final Map<String, String> values;
+
+		private URL target;
+
+		private volatile CompletableFuture<HttpResponse> future;
+
+		Item(int index, PreparedRequest request, Map<String, String> values) {
+			this.index = index;
+			this.request = request;
+			this.values = values;
+		}
+	}
+
+	private static final class Host {
+
+		private final Route route;
+
+		private final ArrayDeque<Item> pending = new ArrayDeque<Item>();
+
+		private int active;
+
+		private Host(Route route) {
+			this.route = route;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package rv.httpclient;
+
+import java.util.Map;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Outcome of one request of a {@link BatchExecution}, either the
+ *           response returned by server or the exception the request failed
+ *           with. Requests that were cancelled or ran past the deadline of the
+ *           batch are reported with an exception as well.
+ *           </p>
+ *
+ */
+public final class BatchResult {
+
+	private final int index;
+
+	private final PreparedRequest request;
+
+	private final Map<String, String> values;
+
+	private final HttpResponse response;
+
+	private final HttpClientException exception;
+
+	BatchResult(int index, PreparedRequest request, Map<String, String> values, HttpResponse response,
+			HttpClientException exception) {
+		this.index = index;
+		this.request = request;
+		this.values = values;
+		this.response = response;
+		this.exception = exception;
+	}
+
+	/** Position of the request in the collection given to the batch. */
+	public int getIndex() {
+		return index;
+	}
+
+	public PreparedRequest getRequest() {
+		return request;
+	}
+
+	/** Values of the URL variables, null if none were given. */
+	public Map<String, String> getValues() {
+		return values;
+	}
+
+	/** Response returned by server, null if the request failed. */
+	public HttpResponse getResponse() {
+		return response;
+	}
+
+	/** Reason the request failed, null if a response was returned. */
+	public HttpClientException getException() {
+		return exception;
+	}
+
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("BatchResult [index=%s, response=%s, exception=%s]", index,
+				response != null ? response.getResponseCode() : null, exception != null ? exception.getMessage() : null);
+	}
+
+}
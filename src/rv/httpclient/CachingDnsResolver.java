@@ -0,0 +1,348 @@
+package rv.httpclient;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           {@link DnsResolver} keeping the answers of another resolver for a
+ *           time to live of its own, independent of the JVM wide
+ *           {@code networkaddress.cache.ttl}. An answer used during the last
+ *           quarter of its time to live is looked up again in the background,
+ *           so hosts in steady use are not resolved on the request path. A
+ *           host that could not be resolved is remembered for the negative
+ *           time to live. Concurrent lookups of a host that is not cached wait
+ *           for a single lookup of the delegate.
+ *           </p>
+ *           <p>
+ *           Each lookup returns the addresses of a host rotated by one, which
+ *           spreads new connections over them. An address reported by
+ *           {@link #connectFailed(String, InetAddress)} is returned last
+ *           until the negative time to live has passed.
+ *           </p>
+ *
+ */
+public final class CachingDnsResolver implements DnsResolver {
+
+	public static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(30);
+
+	public static final long DEFAULT_NEGATIVE_TTL = TimeUnit.SECONDS.toMillis(10);
+
+	private static final int MAX_ENTRIES = 4096;
+
+	private final DnsResolver delegate;
+
+	private final long ttl;
+
+	private final long negativeTtl;
+
+	private final Executor executor;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+	/** Lookups of the delegate in progress on the request path, by key. */
+	private final ConcurrentHashMap<String, CompletableFuture<Entry>> pending =
+			new ConcurrentHashMap<String, CompletableFuture<Entry>>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder refreshes = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	/** Cache of the JVM resolver with the default times to live. */
+	public CachingDnsResolver() {
+		this(DnsResolver.SYSTEM, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, null);
+	}
+
+	/***
+	 * Cache of another resolver, refreshed by a small pool of daemon threads
+	 * shared by the resolvers of this class.
+	 *
+	 * @param delegate
+	 *            - resolver doing the lookups
+	 * @param ttlMillis
+	 *            - how long addresses are kept
+	 * @param negativeTtlMillis
+	 *            - how long unknown hosts and failed addresses are kept
+	 */
+	public CachingDnsResolver(DnsResolver delegate, long ttlMillis, long negativeTtlMillis) {
+		this(delegate, ttlMillis, negativeTtlMillis, null);
+	}
+
+	/***
+	 * Cache of another resolver.
+	 *
+	 * @param delegate
+	 *            - resolver doing the lookups
+	 * @param ttlMillis
+	 *            - how long addresses are kept
+	 * @param negativeTtlMillis
+	 *            - how long unknown hosts and failed addresses are kept
+	 * @param executor
+	 *            - runs background refreshes, null for the shared pool of
+	 *            this class
+	 */
+	public CachingDnsResolver(DnsResolver delegate, long ttlMillis, long negativeTtlMillis, Executor executor) {
+		if (delegate == null || ttlMillis < 0 || negativeTtlMillis < 0) {
+			throw new IllegalArgumentException("Resolver needs a delegate and times to live of zero or more.");
+		}
+		this.delegate = delegate;
+		this.ttl = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.negativeTtl = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+		this.executor = executor;
+	}
+
+	@Override
+	public InetAddress[] resolve(final String host) throws UnknownHostException {
+		final String key = host.toLowerCase(Locale.ROOT);
+		final long now = System.nanoTime();
+		Entry entry = entries.get(key);
+		if (entry != null && now - entry.expires < 0) {
+			hits.increment();
+			if (entry.addresses != null && now - entry.refreshAt >= 0) {
+				refresh(key, host);
+			}
+		} else {
+			misses.increment();
+			entry = lookup(key, host, now);
+		}
+		if (entry.addresses == null) {
+			throw new UnknownHostException(host);
+		}
+		return entry.next(now);
+	}
+
+	@Override
+	public void connectFailed(final String host, final InetAddress address) {
+		final Entry entry = entries.get(host.toLowerCase(Locale.ROOT));
+		if (entry != null && entry.addresses != null) {
+			final long now = System.nanoTime();
+			entry.failed(address, now, now + negativeTtl);
+		}
+	}
+
+	/** Forgets the addresses of a host. */
+	public void invalidate(final String host) {
+		entries.remove(host.toLowerCase(Locale.ROOT));
+	}
+
+	/** Forgets every host. */
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/** Lookups answered from the cache, including unknown hosts. */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** Lookups that had to wait for the delegate. */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** Lookups done in the background before the addresses expired. */
+	public long getRefreshes() {
+		return refreshes.sum();
+	}
+
+	/** Lookups of the delegate that failed. */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CachingDnsResolver [size=%s, hits=%s, misses=%s, refreshes=%s, failures=%s]", size(),
+				getHits(), getMisses(), getRefreshes(), getFailures());
+	}
+
+	/** Looks the host up, or waits for the lookup another thread is doing. */
+	private Entry lookup(final String key, final String host, final long now) {
+		final CompletableFuture<Entry> lookup = new CompletableFuture<Entry>();
+		final CompletableFuture<Entry> running = pending.putIfAbsent(key, lookup);
+		if (running != null) {
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+		try {
+			Entry entry = entries.get(key);
+			if (entry == null || now - entry.expires >= 0) {
+				// not stored by a lookup that ended in the meantime
+				try {
+					entry = new Entry(addresses(host), now + ttl, now + ttl - ttl / 4);
+				} catch (UnknownHostException e) {
+					failures.increment();
+					entry = new Entry(null, now + negativeTtl, now + negativeTtl);
+				}
+				store(key, entry, now);
+			}
+			lookup.complete(entry);
+			return entry;
+		} catch (RuntimeException | Error e) {
+			lookup.completeExceptionally(e);
+			throw e;
+		} finally {
+			pending.remove(key, lookup);
+		}
+	}
+
+	private void refresh(final String key, final String host) {
+		if (!refreshing.add(key)) {
+			return;
+		}
+		try {
+			(executor != null ? executor : Refresher.POOL).execute(() -> {
+				try {
+					final InetAddress[] addresses = addresses(host);
+					final long now = System.nanoTime();
+					store(key, new Entry(addresses, now + ttl, now + ttl - ttl / 4), now);
+					refreshes.increment();
+				} catch (UnknownHostException | RuntimeException e) {
+					// the current addresses stay until they expire
+					failures.increment();
+				} finally {
+					refreshing.remove(key);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(key);
+		}
+	}
+
+	private InetAddress[] addresses(final String host) throws UnknownHostException {
+		final InetAddress[] addresses = delegate.resolve(host);
+		if (addresses == null || addresses.length == 0) {
+			throw new UnknownHostException(host);
+		}
+		return addresses.clone();
+	}
+
+	private void store(final String key, final Entry entry, final long now) {
+		entries.put(key, entry);
+		if (entries.size() > MAX_ENTRIES) {
+			entries.values().removeIf(e -> now - e.expires >= 0);
+			final Iterator<String> it = entries.keySet().iterator();
+			while (entries.size() > MAX_ENTRIES && it.hasNext()) {
+				if (!it.next().equals(key)) {
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/** Threads refreshing the resolvers without an executor of their own, started when first needed. */
+	private static final class Refresher {
+
+		private static final ThreadPoolExecutor POOL;
+
+		static {
+			final AtomicInteger count = new AtomicInteger();
+			POOL = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+				final Thread thread = new Thread(r, "httpclient-dns-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			POOL.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	/** Addresses of a host, null for an unknown host. */
+	private static final class Entry {
+
+		private final InetAddress[] addresses;
+
+		private final long expires;
+
+		private final long refreshAt;
+
+		private final AtomicInteger rotation = new AtomicInteger();
+
+		/** Until when each address is tried last, null while none failed. */
+		private volatile long[] failedUntil;
+
+		private Entry(InetAddress[] addresses, long expires, long refreshAt) {
+			this.addresses = addresses;
+			this.expires = expires;
+			this.refreshAt = refreshAt;
+		}
+
+		/** The addresses rotated by one on each call, failed ones last. */
+		private InetAddress[] next(final long now) {
+			final int n = addresses.length;
+			if (n == 1) {
+				return addresses.clone();
+			}
+			final int start = (rotation.getAndIncrement() & Integer.MAX_VALUE) % n;
+			final InetAddress[] next = new InetAddress[n];
+			final long[] failed = failedUntil;
+			int healthy = 0;
+			int last = n;
+			for (int i = 0; i < n; i++) {
+				final int index = (start + i) % n;
+				if (failed != null && now - failed[index] < 0) {
+					next[--last] = addresses[index];
+				} else {
+					next[healthy++] = addresses[index];
+				}
+			}
+			// failed addresses were filled from the end, restore their order
+			for (int i = last, j = n - 1; i < j; i++, j--) {
+				final InetAddress swap = next[i];
+				next[i] = next[j];
+				next[j] = swap;
+			}
+			return next;
+		}
+
+		private synchronized void failed(final InetAddress address, final long now, final long until) {
+			for (int i = 0; i < addresses.length; i++) {
+				if (addresses[i].equals(address)) {
+					final long[] failed = failedUntil != null ? Arrays.copyOf(failedUntil, addresses.length)
+							: new long[addresses.length];
+					if (failedUntil == null) {
+						Arrays.fill(failed, now);
+					}
+					failed[i] = until;
+					failedUntil = failed;
+					return;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,383 @@
+package rv.httpclient;
+
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.ConnectionPool.Route;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Circuit breaker per scheme, host and port, see
+ *           {@link HttpClientConfig#setCircuitBreaker(CircuitBreaker)}. The
+ *           outcome of the last {@link #getWindowSize()} calls to a host is
+ *           kept. Once at least {@link #getMinimumCalls()} were recorded and
+ *           the share of failed or of slow calls reaches its threshold, the
+ *           circuit opens and requests to the host fail at once without
+ *           connecting. Their {@link HttpAck} reports
+ *           {@link rv.httpclient.util.ResponseCode#CIRCUIT_OPEN}.
+ *           </p>
+ *           <p>
+ *           After {@link #getOpenDuration()} the circuit is half-open and lets
+ *           {@link #getHalfOpenCalls()} trial calls through. If they all
+ *           succeed the circuit closes, the first failed or slow one opens it
+ *           again. A call failed when it threw or the server answered with a
+ *           5xx code.
+ *           </p>
+ *           <p>
+ *           The state of a circuit is swapped with compare-and-set and the
+ *           window is an array of atomic slots, a call through a closed
+ *           circuit takes no lock.
+ *           </p>
+ *
+ */
+public final class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final ConcurrentHashMap<Route, Circuit> circuits = new ConcurrentHashMap<Route, Circuit>();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private volatile int windowSize = 50;
+
+	private volatile int minimumCalls = 20;
+
+	private volatile int failureRateThreshold = 50;
+
+	private volatile int slowCallRateThreshold = 80;
+
+	private volatile long slowCallDuration = 5000;
+
+	private volatile long openDuration = 10000;
+
+	private volatile int halfOpenCalls = 5;
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * Set the number of calls per host the rates are computed over. Applies to
+	 * hosts called for the first time. Defaults to 50.
+	 *
+	 * @param windowSize
+	 *            - number of calls
+	 */
+	public void setWindowSize(int windowSize) {
+		this.windowSize = Math.max(1, windowSize);
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	/**
+	 * Set the number of calls recorded before the circuit of a host can open.
+	 * Defaults to 20.
+	 *
+	 * @param minimumCalls
+	 *            - number of calls
+	 */
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = Math.max(1, minimumCalls);
+	}
+
+	public int getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * Set the percentage of failed calls that opens the circuit. Defaults to
+	 * 50.
+	 *
+	 * @param failureRateThreshold
+	 *            - percentage of calls
+	 */
+	public void setFailureRateThreshold(int failureRateThreshold) {
+		this.failureRateThreshold = Math.max(1, failureRateThreshold);
+	}
+
+	public int getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	/**
+	 * Set the percentage of slow calls that opens the circuit. Defaults to 80.
+	 *
+	 * @param slowCallRateThreshold
+	 *            - percentage of calls, above 100 to ignore slow calls
+	 */
+	public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+		this.slowCallRateThreshold = Math.max(1, slowCallRateThreshold);
+	}
+
+	public long getSlowCallDuration() {
+		return slowCallDuration;
+	}
+
+	/**
+	 * Set the time in milliseconds after which a call until its response head
+	 * counts as slow. Defaults to 5 seconds.
+	 *
+	 * @param slowCallDuration
+	 *            - duration in milliseconds
+	 */
+	public void setSlowCallDuration(long slowCallDuration) {
+		this.slowCallDuration = Math.max(0, slowCallDuration);
+	}
+
+	public long getOpenDuration() {
+		return openDuration;
+	}
+
+	/**
+	 * Set the time in milliseconds a circuit stays open before trial calls
+	 * are let through. Defaults to 10 seconds.
+	 *
+	 * @param openDuration
+	 *            - duration in milliseconds
+	 */
+	public void setOpenDuration(long openDuration) {
+		this.openDuration = Math.max(0, openDuration);
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	/**
+	 * Set the number of trial calls of a half-open circuit. Defaults to 5.
+	 *
+	 * @param halfOpenCalls
+	 *            - number of calls
+	 */
+	public void setHalfOpenCalls(int halfOpenCalls) {
+		this.halfOpenCalls = Math.max(1, halfOpenCalls);
+	}
+
+	/** State of the circuit of a host, CLOSED if it was never called. */
+	public State getState(final URL url) {
+		final Circuit circuit = circuits.get(Route.of(url));
+		return circuit != null ? circuit.state() : State.CLOSED;
+	}
+
+	/** Number of requests failed by an open circuit. */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/** Closes every circuit and forgets the recorded calls. */
+	public void reset() {
+		circuits.clear();
+	}
+
+	/***
+	 * Asks the circuit of a host to let a call through.
+	 *
+	 * @return permit to record the outcome with, null if the circuit is open
+	 */
+	Permit acquire(final URL url) {
+		final Route route = Route.of(url);
+		Circuit circuit = circuits.get(route);
+		if (circuit == null) {
+			final Circuit created = new Circuit(windowSize);
+			circuit = circuits.putIfAbsent(route, created);
+			if (circuit == null) {
+				circuit = created;
+			}
+		}
+		final Phase phase = circuit.allow();
+		if (phase == null) {
+			rejected.increment();
+			return null;
+		}
+		return new Permit(circuit, phase, System.nanoTime());
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("CircuitBreaker [rejected=").append(getRejected());
+		circuits.forEach((route, circuit) -> sb.append(", ").append(route).append('=').append(circuit.state()));
+		return sb.append(']').toString();
+	}
+
+	/** Call let through a circuit, reports how it went. */
+	final class Permit {
+
+		private final Circuit circuit;
+
+		private final Phase phase;
+
+		private final long start;
+
+		private boolean settled;
+
+		private Permit(Circuit circuit, Phase phase, long start) {
+			this.circuit = circuit;
+			this.phase = phase;
+			this.start = start;
+		}
+
+		void record(final boolean failure) {
+			if (settled) {
+				return;
+			}
+			settled = true;
+			final boolean slow = System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+			circuit.record(phase, failure, slow);
+		}
+
+		/**
+		 * Ends a call whose outcome says nothing about the host, e.g. a lost
+		 * hedge. A half-open trial slot is given back for another call, does
+		 * nothing once recorded.
+		 */
+		void release() {
+			if (settled) {
+				return;
+			}
+			settled = true;
+			if (phase.state == State.HALF_OPEN) {
+				phase.permits.incrementAndGet();
+			}
+		}
+	}
+
+	/** State of a circuit, replaced as a whole on every transition. */
+	private static final class Phase {
+
+		private final State state;
+
+		private final long since;
+
+		/** Trial calls left to let through while half-open. */
+		private final AtomicInteger permits;
+
+		/** Trial calls that succeeded while half-open. */
+		private final AtomicInteger successes = new AtomicInteger();
+
+		private Phase(State state, long since, int permits) {
+			this.state = state;
+			this.since = since;
+			this.permits = new AtomicInteger(permits);
+		}
+	}
+
+	private final class Circuit {
+
+		private static final int RECORDED = 1;
+		private static final int FAILED = 2;
+		private static final int SLOW = 4;
+
+		private final AtomicReference<Phase> phase = new AtomicReference<Phase>(
+				new Phase(State.CLOSED, System.nanoTime(), 0));
+
+		/** Outcome of the last calls as a ring, 0 for an empty slot. */
+		private final AtomicIntegerArray outcomes;
+
+		private final AtomicLong cursor = new AtomicLong();
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private final AtomicInteger slowCalls = new AtomicInteger();
+
+		private Circuit(int size) {
+			this.outcomes = new AtomicIntegerArray(size);
+		}
+
+		private State state() {
+			return phase.get().state;
+		}
+
+		private Phase allow() {
+			Phase current = phase.get();
+			if (current.state == State.OPEN) {
+				final long now = System.nanoTime();
+				if (now - current.since < TimeUnit.MILLISECONDS.toNanos(openDuration)) {
+					return null;
+				}
+				final Phase halfOpen = new Phase(State.HALF_OPEN, now, halfOpenCalls);
+				current = phase.compareAndSet(current, halfOpen) ? halfOpen : phase.get();
+			}
+			switch (current.state) {
+			case CLOSED:
+				return current;
+			case HALF_OPEN:
+				// not below zero, a rejected call must not use up a slot given back later
+				for (int left = current.permits.get(); left > 0; left = current.permits.get()) {
+					if (current.permits.compareAndSet(left, left - 1)) {
+						return current;
+					}
+				}
+				return null;
+			default:
+				return null;
+			}
+		}
+
+		private void record(final Phase during, final boolean failure, final boolean slow) {
+			if (during.state == State.HALF_OPEN) {
+				if (phase.get() != during) {
+					return;
+				}
+				if (failure || slow) {
+					phase.compareAndSet(during, new Phase(State.OPEN, System.nanoTime(), 0));
+				} else if (during.successes.incrementAndGet() >= halfOpenCalls
+						&& phase.compareAndSet(during, new Phase(State.CLOSED, System.nanoTime(), 0))) {
+					clear();
+				}
+				return;
+			}
+			final int outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+			final int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+			final int old = outcomes.getAndSet(slot, outcome);
+			update(old, outcome);
+			final Phase current = phase.get();
+			if (current.state != State.CLOSED) {
+				return;
+			}
+			final int n = calls.get();
+			if (n >= minimumCalls && (failures.get() * 100L >= (long) failureRateThreshold * n
+					|| slowCalls.get() * 100L >= (long) slowCallRateThreshold * n)) {
+				phase.compareAndSet(current, new Phase(State.OPEN, System.nanoTime(), 0));
+			}
+		}
+
+		/** Forgets the calls recorded before the circuit closed again. */
+		private void clear() {
+			for (int i = 0; i < outcomes.length(); i++) {
+				update(outcomes.getAndSet(i, 0), 0);
+			}
+		}
+
+		/** Keeps the counts in step with a slot changing from old to outcome. */
+		private void update(final int old, final int outcome) {
+			final int changed = old ^ outcome;
+			if ((changed & RECORDED) != 0) {
+				calls.addAndGet((outcome & RECORDED) != 0 ? 1 : -1);
+			}
+			if ((changed & FAILED) != 0) {
+				failures.addAndGet((outcome & FAILED) != 0 ? 1 : -1);
+			}
+			if ((changed & SLOW) != 0) {
+				slowCalls.addAndGet((outcome & SLOW) != 0 ? 1 : -1);
+			}
+		}
+	}
+
+}
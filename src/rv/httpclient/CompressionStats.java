@@ -0,0 +1,102 @@
+package rv.httpclient;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Byte counts of compressed bodies, kept per
+ *           {@link HttpClientConfig}. Only bodies that were actually encoded
+ *           are counted, so the ratio of the two sides shows the savings.
+ *           </p>
+ *
+ */
+public final class CompressionStats {
+
+	private final LongAdder decodedResponses = new LongAdder();
+
+	private final LongAdder responseWireBytes = new LongAdder();
+
+	private final LongAdder responseBytes = new LongAdder();
+
+	private final LongAdder encodedRequests = new LongAdder();
+
+	private final LongAdder requestBytes = new LongAdder();
+
+	private final LongAdder requestWireBytes = new LongAdder();
+
+	/** Number of gzip or deflate encoded responses. */
+	public long getDecodedResponses() {
+		return decodedResponses.sum();
+	}
+
+	/** Bytes of encoded response bodies as received. */
+	public long getResponseWireBytes() {
+		return responseWireBytes.sum();
+	}
+
+	/** Bytes of encoded response bodies once decompressed. */
+	public long getResponseBytes() {
+		return responseBytes.sum();
+	}
+
+	/** Number of request bodies sent gzip encoded. */
+	public long getEncodedRequests() {
+		return encodedRequests.sum();
+	}
+
+	/** Bytes of encoded request bodies before compression. */
+	public long getRequestBytes() {
+		return requestBytes.sum();
+	}
+
+	/** Bytes of encoded request bodies as sent. */
+	public long getRequestWireBytes() {
+		return requestWireBytes.sum();
+	}
+
+	public void reset() {
+		decodedResponses.reset();
+		responseWireBytes.reset();
+		responseBytes.reset();
+		encodedRequests.reset();
+		requestBytes.reset();
+		requestWireBytes.reset();
+	}
+
+	void responseDecoded() {
+		decodedResponses.increment();
+	}
+
+	void responseWire(long n) {
+		responseWireBytes.add(n);
+	}
+
+	void response(long n) {
+		responseBytes.add(n);
+	}
+
+	void requestEncoded() {
+		encodedRequests.increment();
+	}
+
+	void request(long n) {
+		requestBytes.add(n);
+	}
+
+	void requestWire(long n) {
+		requestWireBytes.add(n);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompressionStats [responses=%s, responseWireBytes=%s, responseBytes=%s, requests=%s, "
+				+ "requestBytes=%s, requestWireBytes=%s]", getDecodedResponses(), getResponseWireBytes(),
+				getResponseBytes(), getEncodedRequests(), getRequestBytes(), getRequestWireBytes());
+	}
+
+}
@@ -0,0 +1,477 @@
+package rv.httpclient;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rv.httpclient.util.ResponseCode;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Thread-safe pool of keep-alive connections keyed by scheme, host
+ *           and port. Like the JVM keep-alive cache, the pool keeps at most
+ *           {@code http.maxConnections} idle connections per route, 5 by
+ *           default. Connections idle for longer than the idle timeout are
+ *           evicted and stale connections are discarded before being handed
+ *           out again.
+ *           </p>
+ *           <p>
+ *           The number of connections leased at the same time is not limited
+ *           by default, so the pool never holds back a request.
+ *           {@link #setMaxPerRoute(int)} and {@link #setMaxTotal(int)} cap
+ *           it per route and in total, a request beyond the cap then waits up
+ *           to the lease timeout for a connection to be released.
+ *           </p>
+ *           <p>
+ *           A single pool is shared by all requests unless an
+ *           {@link HttpConnection} is created with its own pool.
+ *           </p>
+ *
+ */
+public final class ConnectionPool {
+
+	private static final ConnectionPool DEFAULT = new ConnectionPool();
+
+	private static final long EVICTION_PERIOD = 1000L;
+
+	private final ConcurrentMap<Route, RouteState> routes = new ConcurrentHashMap<Route, RouteState>();
+
+	private final Permits total;
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private volatile int maxPerRoute;
+
+	private volatile int maxTotal;
+
+	private volatile int maxIdlePerRoute;
+
+	private volatile long idleTimeout = 5000L;
+
+	private volatile long leaseTimeout = 30000L;
+
+	private ScheduledExecutorService evictor;
+
+	/**
+	 * Creates a pool without a limit on leased connections that keeps as
+	 * many idle connections per route as the JVM keep-alive cache
+	 * ({@code http.maxConnections}, 5 by default).
+	 */
+	public ConnectionPool() {
+		this(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/***
+	 * Creates a pool capping the connections leased at the same time.
+	 *
+	 * @param maxPerRoute
+	 *            - connections leased to one scheme, host and port
+	 * @param maxTotal
+	 *            - connections leased or idle across all routes
+	 */
+	public ConnectionPool(int maxPerRoute, int maxTotal) {
+		this.maxPerRoute = Math.max(1, maxPerRoute);
+		this.maxTotal = Math.max(1, maxTotal);
+		this.maxIdlePerRoute = Math.max(0, Integer.getInteger("http.maxConnections", 5));
+		this.total = new Permits(this.maxTotal);
+	}
+
+	/** Pool shared by all requests. */
+	public static ConnectionPool getDefault() {
+		return DEFAULT;
+	}
+
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	/**
+	 * Set the maximum number of connections leased to a single scheme, host
+	 * and port at the same time.
+	 */
+	public synchronized void setMaxPerRoute(int maxPerRoute) {
+		final int delta = Math.max(1, maxPerRoute) - this.maxPerRoute;
+		this.maxPerRoute += delta;
+		for (RouteState state : routes.values()) {
+			state.permits.resize(delta);
+		}
+	}
+
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	/** Set the maximum number of connections leased or idle across all routes. */
+	public synchronized void setMaxTotal(int maxTotal) {
+		final int delta = Math.max(1, maxTotal) - this.maxTotal;
+		this.maxTotal += delta;
+		total.resize(delta);
+	}
+
+	public int getMaxIdlePerRoute() {
+		return maxIdlePerRoute;
+	}
+
+	/** Set the maximum number of idle connections kept for a single route. */
+	public void setMaxIdlePerRoute(int maxIdlePerRoute) {
+		this.maxIdlePerRoute = Math.max(0, maxIdlePerRoute);
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/** Set the time in milliseconds after which an idle connection is evicted. */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getLeaseTimeout() {
+		return leaseTimeout;
+	}
+
+	/** Set the time in milliseconds to wait for a free connection slot. */
+	public void setLeaseTimeout(long leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	/** Number of leases served by an idle pooled connection. */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/** Number of leases that required a new connection. */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/** Number of idle connections discarded because they expired or went stale. */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/** Number of connections currently leased. */
+	public int getLeased() {
+		return maxTotal - total.availablePermits();
+	}
+
+	/** Number of connections currently idle in the pool. */
+	public int getIdle() {
+		return idleCount.get();
+	}
+
+	/***
+	 * Leases a connection slot for the route, waiting up to the lease timeout
+	 * when the route or the pool is capped and at capacity.
+	 *
+	 * @param route
+	 *            - scheme, host and port to connect to
+	 * @return lease holding an idle connection, or none if a new one must be
+	 *         opened
+	 * @throws HttpClientException
+	 */
+	public Lease lease(final Route route) throws HttpClientException {
+		final RouteState state = state(route);
+		try {
+			if (!state.permits.tryAcquire(leaseTimeout, TimeUnit.MILLISECONDS)) {
+				throw new HttpClientException(ResponseCode.RUNTIME_ERROR,
+						"Timed out waiting for a connection to " + route + ".");
+			}
+			if (!total.tryAcquire(leaseTimeout, TimeUnit.MILLISECONDS)) {
+				state.permits.release();
+				throw new HttpClientException(ResponseCode.RUNTIME_ERROR,
+						"Timed out waiting for a connection from the pool.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Interrupted while waiting for a connection.", e);
+		}
+		final PooledConnection connection = poll(state);
+		if (connection != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return new Lease(route, state, connection);
+	}
+
+	/***
+	 * Ends a lease. A connection passed back is kept for reuse, otherwise the
+	 * slot is simply freed.
+	 *
+	 * @param lease
+	 *            - lease obtained from {@link #lease(Route)}
+	 * @param connection
+	 *            - reusable connection, or null if it was closed
+	 */
+	public void release(final Lease lease, final PooledConnection connection) {
+		if (!lease.released.compareAndSet(false, true)) {
+			return;
+		}
+		if (connection != null) {
+			final RouteState state = lease.state;
+			if (state.idleCount.incrementAndGet() > maxIdlePerRoute) {
+				state.idleCount.decrementAndGet();
+				connection.close();
+			} else if (idleCount.incrementAndGet() > maxTotal) {
+				idleCount.decrementAndGet();
+				state.idleCount.decrementAndGet();
+				connection.close();
+			} else {
+				state.idle.offerLast(new Idle(connection, System.nanoTime()));
+				startEvictor();
+			}
+		}
+		total.release();
+		lease.state.permits.release();
+	}
+
+	/***
+	 * Closes idle connections that exceeded the idle timeout or went stale.
+	 * Runs periodically in the background once connections are pooled.
+	 */
+	public void evictIdle() {
+		final long expiry = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+		for (RouteState state : routes.values()) {
+			final Iterator<Idle> it = state.idle.iterator();
+			while (it.hasNext()) {
+				final Idle idle = it.next();
+				// taken out before the probe, which reads from the connection, a lease may have it already
+				if (!state.idle.removeFirstOccurrence(idle)) {
+					continue;
+				}
+				if (idle.since - expiry < 0 || idle.connection.isStale()) {
+					idleCount.decrementAndGet();
+					state.idleCount.decrementAndGet();
+					evict(idle.connection);
+				} else {
+					// back at the oldest end, behind the iterator
+					state.idle.offerFirst(idle);
+				}
+			}
+		}
+	}
+
+	/***
+	 * Closes all idle connections.
+	 */
+	public void clear() {
+		for (RouteState state : routes.values()) {
+			Idle idle;
+			while ((idle = state.idle.pollFirst()) != null) {
+				idleCount.decrementAndGet();
+				state.idleCount.decrementAndGet();
+				idle.connection.close();
+			}
+		}
+	}
+
+	private RouteState state(final Route route) {
+		RouteState state = routes.get(route);
+		if (state == null) {
+			final RouteState created = new RouteState(maxPerRoute);
+			state = routes.putIfAbsent(route, created);
+			if (state == null) {
+				state = created;
+			}
+		}
+		return state;
+	}
+
+	private PooledConnection poll(final RouteState state) {
+		final long expiry = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+		Idle idle;
+		// most recently returned first, it is the least likely to be stale
+		while ((idle = state.idle.pollLast()) != null) {
+			idleCount.decrementAndGet();
+			state.idleCount.decrementAndGet();
+			if (idle.since - expiry < 0 || idle.connection.isStale()) {
+				evict(idle.connection);
+			} else {
+				return idle.connection;
+			}
+		}
+		return null;
+	}
+
+	private void evict(final PooledConnection connection) {
+		evictions.incrementAndGet();
+		connection.close();
+	}
+
+	private synchronized void startEvictor() {
+		if (evictor == null) {
+			evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					final Thread thread = new Thread(r, "httpclient-pool-evictor");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			evictor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					evictIdle();
+				}
+			}, EVICTION_PERIOD, EVICTION_PERIOD, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ConnectionPool [leased=%s, idle=%s, hits=%s, misses=%s, evictions=%s]", getLeased(),
+				getIdle(), getHits(), getMisses(), getEvictions());
+	}
+
+	/**
+	 * Pool key made of scheme, host and port.
+	 */
+	public static final class Route {
+
+		private final String scheme;
+
+		private final String host;
+
+		private final int port;
+
+		public Route(String scheme, String host, int port) {
+			this.scheme = scheme.toLowerCase(Locale.ROOT);
+			this.host = host.toLowerCase(Locale.ROOT);
+			this.port = port;
+		}
+
+		public static Route of(final URL url) {
+			return new Route(url.getProtocol(), url.getHost(), url.getPort() != -1 ? url.getPort() : url.getDefaultPort());
+		}
+
+		public String getScheme() {
+			return scheme;
+		}
+
+		public String getHost() {
+			return host;
+		}
+
+		public int getPort() {
+			return port;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Route)) {
+				return false;
+			}
+			final Route other = (Route) obj;
+			return port == other.port && host.equals(other.host) && scheme.equals(other.scheme);
+		}
+
+		@Override
+		public int hashCode() {
+			return (scheme.hashCode() * 31 + host.hashCode()) * 31 + port;
+		}
+
+		@Override
+		public String toString() {
+			return scheme + "://" + host + ":" + port;
+		}
+	}
+
+	/**
+	 * A connection slot held by one request until it is released.
+	 */
+	public static final class Lease {
+
+		private final Route route;
+
+		private final RouteState state;
+
+		private final PooledConnection connection;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Lease(Route route, RouteState state, PooledConnection connection) {
+			this.route = route;
+			this.state = state;
+			this.connection = connection;
+		}
+
+		public Route getRoute() {
+			return route;
+		}
+
+		/** Idle connection handed out by the pool, null when none was available. */
+		public PooledConnection getConnection() {
+			return connection;
+		}
+	}
+
+	private static final class RouteState {
+
+		private final Permits permits;
+
+		private final ConcurrentLinkedDeque<Idle> idle = new ConcurrentLinkedDeque<Idle>();
+
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		private RouteState(int permits) {
+			this.permits = new Permits(permits);
+		}
+	}
+
+	private static final class Idle {
+
+		private final PooledConnection connection;
+
+		private final long since;
+
+		private Idle(PooledConnection connection, long since) {
+			this.connection = connection;
+			this.since = since;
+		}
+	}
+
+	private static final class Permits extends Semaphore {
+
+		private static final long serialVersionUID = 1L;
+
+		private Permits(int permits) {
+			// not fair, with the default unlimited caps every lease would pay for the queue
+			super(permits, false);
+		}
+
+		private void resize(int delta) {
+			if (delta > 0) {
+				release(delta);
+			} else if (delta < 0) {
+				reducePermits(-delta);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,212 @@
+package rv.httpclient;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           gzip and deflate content codings. Response bodies are inflated
+ *           while they are read and request bodies deflated while they are
+ *           written, neither is buffered as a whole.
+ *           </p>
+ *
+ */
+final class ContentCoding {
+
+	static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	static final String GZIP = "gzip";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private ContentCoding() {
+
+	}
+
+	/***
+	 * Wraps a response body in the decoder named by its Content-Encoding.
+	 *
+	 * @param headers
+	 *            - response headers
+	 * @param body
+	 *            - body as received
+	 * @param stats
+	 *            - counters to record the sizes in
+	 * @return decoded body, the body itself if it is not encoded
+	 * @throws IOException
+	 */
+	static InputStream decode(final ResponseHeaders headers, final InputStream body,
+			final CompressionStats stats) throws IOException {
+		final String encoding = headers.getFirst("Content-Encoding");
+		if (encoding == null) {
+			return body;
+		}
+		final String coding = encoding.trim();
+		final boolean gzip = GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding);
+		if (!gzip && !"deflate".equalsIgnoreCase(coding)) {
+			return body;
+		}
+		final PushbackInputStream wire = new PushbackInputStream(new WireStream(body, stats), 2);
+		final int b0 = wire.read();
+		if (b0 == -1) {
+			// encoded but empty, e.g. the body of a HEAD request
+			return wire;
+		}
+		final int b1 = wire.read();
+		if (b1 != -1) {
+			wire.unread(b1);
+		}
+		wire.unread(b0);
+		stats.responseDecoded();
+		final InputStream decoder;
+		if (gzip) {
+			decoder = new GZIPInputStream(wire, BUFFER_SIZE);
+		} else {
+			// RFC 9110 deflate is zlib wrapped, some servers send the raw format
+			final boolean zlib = b1 != -1 && (b0 & 0x0F) == 8 && ((b0 << 8) | b1) % 31 == 0;
+			decoder = new InflaterInputStream(wire, new Inflater(!zlib), BUFFER_SIZE);
+		}
+		return new DecodedStream(decoder, wire, stats);
+	}
+
+	/** Body compressed with gzip while it is written. */
+	static RequestBody gzip(final RequestBody body, final CompressionStats stats) {
+		return new RequestBody() {
+
+			@Override
+			public long contentLength() {
+				return -1;
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return body.isRepeatable();
+			}
+
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				stats.requestEncoded();
+				final GZIPOutputStream gzip = new GZIPOutputStream(new CountingStream(out, stats, true), BUFFER_SIZE);
+				body.writeTo(new CountingStream(gzip, stats, false));
+				gzip.finish();
+			}
+		};
+	}
+
+	/** Counts the bytes received on the wire. */
+	private static final class WireStream extends FilterInputStream {
+
+		private final CompressionStats stats;
+
+		private WireStream(InputStream in, CompressionStats stats) {
+			super(in);
+			this.stats = stats;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			if (b != -1) {
+				stats.responseWire(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int n = super.read(b, off, len);
+			if (n > 0) {
+				stats.responseWire(n);
+			}
+			return n;
+		}
+	}
+
+	/**
+	 * Counts the decoded bytes. Once the decoder is done the wire stream is
+	 * read to its end, so that the connection is seen to be complete.
+	 */
+	private static final class DecodedStream extends FilterInputStream {
+
+		private final InputStream wire;
+
+		private final CompressionStats stats;
+
+		private DecodedStream(InputStream decoder, InputStream wire, CompressionStats stats) {
+			super(decoder);
+			this.wire = wire;
+			this.stats = stats;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int n = super.read(b, off, len);
+			if (n > 0) {
+				stats.response(n);
+			} else if (n == -1) {
+				while (wire.read() != -1) {
+					// trailing bytes after the compressed data
+				}
+			}
+			return n;
+		}
+	}
+
+	private static final class CountingStream extends FilterOutputStream {
+
+		private final CompressionStats stats;
+
+		private final boolean wire;
+
+		private CountingStream(OutputStream out, CompressionStats stats, boolean wire) {
+			super(out);
+			this.stats = stats;
+			this.wire = wire;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count(len);
+		}
+
+		@Override
+		public void close() {
+			// the connection stream is closed by the caller
+		}
+
+		private void count(final int n) {
+			if (wire) {
+				stats.requestWire(n);
+			} else {
+				stats.request(n);
+			}
+		}
+	}
+
+}
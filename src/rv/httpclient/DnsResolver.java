@@ -0,0 +1,79 @@
+package rv.httpclient;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Looks up the addresses of a host for a transport that opens its
+ *           own sockets, see
+ *           {@link rv.httpclient.nio.NioTransport#NioTransport(int, DnsResolver)}.
+ *           The transport tries the addresses in the order returned and moves
+ *           on to the next one when a connect fails. {@link CachingDnsResolver}
+ *           keeps the answers of another resolver, {@link #SYSTEM} asks the
+ *           JVM and {@link #hosts(Map)} answers from a fixed table.
+ *           </p>
+ *
+ */
+public interface DnsResolver {
+
+	/** Resolver of the JVM, {@link InetAddress#getAllByName(String)}. */
+	DnsResolver SYSTEM = InetAddress::getAllByName;
+
+	/***
+	 * Addresses of a host.
+	 *
+	 * @param host
+	 *            - host name or address literal
+	 * @return at least one address, in the order to try them
+	 * @throws UnknownHostException
+	 *             if the host has no address
+	 */
+	InetAddress[] resolve(String host) throws UnknownHostException;
+
+	/***
+	 * Called when connecting to an address of the host failed, so that it
+	 * can be tried last for a while.
+	 *
+	 * @param host
+	 *            - host as passed to {@link #resolve(String)}
+	 * @param address
+	 *            - address that could not be connected to
+	 */
+	default void connectFailed(String host, InetAddress address) {
+	}
+
+	/***
+	 * Resolver answering from a fixed table without any DNS lookup, e.g. for
+	 * tests. Hosts missing from the table are unknown.
+	 *
+	 * @param table
+	 *            - addresses by host name, matched in any case
+	 * @return resolver
+	 */
+	static DnsResolver hosts(final Map<String, ? extends List<InetAddress>> table) {
+		final Map<String, InetAddress[]> copy = new HashMap<String, InetAddress[]>();
+		for (Map.Entry<String, ? extends List<InetAddress>> entry : table.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				copy.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().toArray(new InetAddress[0]));
+			}
+		}
+		return host -> {
+			final InetAddress[] addresses = copy.get(host.toLowerCase(Locale.ROOT));
+			if (addresses == null) {
+				throw new UnknownHostException(host);
+			}
+			return addresses.clone();
+		};
+	}
+
+}
@@ -0,0 +1,109 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           A single request/response on a {@link Transport}. Headers and
+ *           body are written first, the request is sent when the response
+ *           code is asked for.
+ *           </p>
+ *
+ */
+public interface Exchange {
+
+	void setRequestHeader(String key, String value);
+
+	/** Adds a prepared set of headers, by default one at a time. */
+	default void setRequestHeaders(HeaderBlock headers) {
+		for (int i = 0; i < headers.size(); i++) {
+			setRequestHeader(headers.getName(i), headers.getValue(i));
+		}
+	}
+
+	/***
+	 * Declares the size of the body written next so that it can be sent
+	 * while it is written. Transports that buffer the body ignore it.
+	 *
+	 * @param length
+	 *            - number of bytes of the body, -1 to send it chunked
+	 */
+	default void setContentLength(long length) {
+		// buffered by default
+	}
+
+	/***
+	 * Limits the time spent connecting and waiting for data. A transport
+	 * that runs out of time throws a {@link java.net.SocketTimeoutException}.
+	 *
+	 * @param connectTimeout
+	 *            - milliseconds to open the connection, 0 for no limit
+	 * @param readTimeout
+	 *            - milliseconds to wait for the next byte, 0 for no limit
+	 */
+	default void setTimeouts(int connectTimeout, int readTimeout) {
+		// no limits by default
+	}
+
+	/***
+	 * Time this exchange spent in a phase handled by the transport, i.e.
+	 * {@link RequestPhase#DNS}, {@link RequestPhase#CONNECT} and
+	 * {@link RequestPhase#TLS}. Only known once the response head arrived.
+	 *
+	 * @return nanoseconds, -1 if not measured or the connection was reused
+	 */
+	default long getPhaseNanos(RequestPhase phase) {
+		return -1;
+	}
+
+	/** Stream to write the request body to. */
+	OutputStream getRequestBody() throws IOException;
+
+	/** Sends the request if needed and waits for the response head. */
+	int getResponseCode() throws IOException;
+
+	/***
+	 * Sends the request without waiting for the response, for callers that
+	 * must not hold a thread while the server answers. The returned future
+	 * completes, on a thread of the transport, once the response head and
+	 * the given number of body bytes, or the whole body if it is shorter,
+	 * can be read without waiting on the network. It also completes when the
+	 * exchange fails, reading the response then throws.
+	 *
+	 * @param bodyBytes
+	 *            - body bytes to receive first, 0 for the head only
+	 * @return future of the response, null if the transport can only be
+	 *         waited on in {@link #getResponseCode()}
+	 */
+	default CompletableFuture<Void> sendAsync(long bodyBytes) {
+		return null;
+	}
+
+	String getResponseMessage() throws IOException;
+
+	Map<String, List<String>> getResponseHeaders() throws IOException;
+
+	/** Body of the response whatever its status, may be null if there is none. */
+	InputStream getResponseBody() throws IOException;
+
+	/***
+	 * Ends an exchange whose response was read in full.
+	 *
+	 * @return connection to keep in the pool, or null if it cannot be reused
+	 */
+	PooledConnection detach();
+
+	/** Closes the underlying connection. Safe to call from another thread. */
+	void close();
+
+}
@@ -0,0 +1,22 @@
+package rv.httpclient;
+
+import java.util.Map;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Runs a request whose URL is already fixed with the given
+ *           headers. Used by the layers in front of the network, such as
+ *           {@link HttpCache} and {@link RequestCoalescer}.
+ *           </p>
+ *
+ */
+interface Fetch {
+
+	HttpResponse fetch(Map<String, String> headers) throws HttpClientException;
+
+}
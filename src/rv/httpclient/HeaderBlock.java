@@ -0,0 +1,134 @@
+package rv.httpclient;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Immutable set of request headers, encoded once into their wire
+ *           form. Transports that write HTTP/1.1 themselves copy the encoded
+ *           bytes as they are, others add the headers one by one.
+ *           </p>
+ *
+ */
+public final class HeaderBlock {
+
+	public static final HeaderBlock EMPTY = new HeaderBlock(new String[0], new String[0]);
+
+	private final String[] names;
+
+	private final String[] values;
+
+	private final byte[] encoded;
+
+	private final boolean wellFormed;
+
+	private HeaderBlock(String[] names, String[] values) {
+		this.names = names;
+		this.values = values;
+		final StringBuilder sb = new StringBuilder(names.length * 32);
+		boolean wellFormed = true;
+		for (int i = 0; i < names.length; i++) {
+			wellFormed &= !hasLineBreak(names[i]) && !hasLineBreak(values[i]);
+			sb.append(names[i]).append(": ").append(values[i]).append("\r\n");
+		}
+		this.encoded = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+		this.wellFormed = wellFormed;
+	}
+
+	/** Whether the text contains CR or LF, which would end a header line early. */
+	public static boolean hasLineBreak(final String text) {
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c == '\r' || c == '\n') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Encode the given headers, entries with a null key or value are skipped.
+	 *
+	 * @param headers
+	 *            - headers to encode, may be null
+	 * @return the header block
+	 */
+	public static HeaderBlock of(final Map<String, String> headers) {
+		if (headers == null || headers.isEmpty()) {
+			return EMPTY;
+		}
+		final String[] names = new String[headers.size()];
+		final String[] values = new String[headers.size()];
+		int size = 0;
+		for (Entry<String, String> entry : headers.entrySet()) {
+			if (entry.getKey() != null && entry.getValue() != null) {
+				names[size] = entry.getKey();
+				values[size] = entry.getValue();
+				size++;
+			}
+		}
+		if (size < names.length) {
+			final String[] n = new String[size];
+			final String[] v = new String[size];
+			System.arraycopy(names, 0, n, 0, size);
+			System.arraycopy(values, 0, v, 0, size);
+			return new HeaderBlock(n, v);
+		}
+		return new HeaderBlock(names, values);
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	public String getName(int index) {
+		return names[index];
+	}
+
+	public String getValue(int index) {
+		return values[index];
+	}
+
+	/** Whether a header of the given name is present, ignoring case. */
+	public boolean contains(final String name) {
+		for (String n : names) {
+			if (n.equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether no name or value contains CR or LF. Transports must not copy a
+	 * block that is not, its extra lines would be sent as headers of their
+	 * own.
+	 */
+	public boolean isWellFormed() {
+		return wellFormed;
+	}
+
+	/** Number of bytes of the encoded block. */
+	public int length() {
+		return encoded.length;
+	}
+
+	/** Copies the encoded "Name: value" lines into the buffer. */
+	public void writeTo(final ByteBuffer buffer) {
+		buffer.put(encoded);
+	}
+
+	@Override
+	public String toString() {
+		return new String(encoded, StandardCharsets.ISO_8859_1);
+	}
+
+}
@@ -0,0 +1,143 @@
+package rv.httpclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Hedged requests, see {@code setHedgePolicy} of the handlers. If an
+ *           attempt has not returned a response within {@link #getDelay()},
+ *           the same request is sent again on a second connection. Whichever
+ *           response arrives first is returned and the other request is
+ *           aborted. The delay is best set to about the 95th percentile of
+ *           the latency of the backend, so only the slowest requests are sent
+ *           twice.
+ *           </p>
+ *           <p>
+ *           Only idempotent methods with a repeatable body are hedged. Hedges
+ *           are paid from a budget shared by all requests using the policy,
+ *           every request earns {@link #getBudgetPercent()} percent of a hedge.
+ *           A policy is thread safe and meant to be shared.
+ *           </p>
+ *
+ */
+public final class HedgePolicy {
+
+	/** Budget in thousandths of a hedge. */
+	private static final long UNIT = 1000;
+
+	private static final long RESERVE = 10 * UNIT;
+
+	private volatile long delay = 100;
+
+	private volatile double budgetPercent = 5;
+
+	private final AtomicLong budget = new AtomicLong(RESERVE);
+
+	private final LongAdder requests = new LongAdder();
+
+	private final LongAdder hedges = new LongAdder();
+
+	private final LongAdder hedgesWon = new LongAdder();
+
+	private final LongAdder budgetExhausted = new LongAdder();
+
+	public long getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Set the time in milliseconds to wait for a response before the request
+	 * is sent again. Defaults to 100.
+	 *
+	 * @param delay
+	 *            - delay in milliseconds
+	 */
+	public void setDelay(long delay) {
+		this.delay = Math.max(0, delay);
+	}
+
+	public double getBudgetPercent() {
+		return budgetPercent;
+	}
+
+	/**
+	 * Set the share of requests that may be hedged, in percent. Defaults to 5.
+	 *
+	 * @param budgetPercent
+	 *            - percentage of requests
+	 */
+	public void setBudgetPercent(double budgetPercent) {
+		this.budgetPercent = Math.max(0, budgetPercent);
+	}
+
+	/** Number of requests sent under this policy. */
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	/** Number of hedges sent. */
+	public long getHedges() {
+		return hedges.sum();
+	}
+
+	/** Number of hedges that returned before the request they duplicated. */
+	public long getHedgesWon() {
+		return hedgesWon.sum();
+	}
+
+	/** Number of hedges skipped because the budget was spent. */
+	public long getBudgetExhausted() {
+		return budgetExhausted.sum();
+	}
+
+	/** Whether requests of the method and body may be hedged at all. */
+	boolean accepts(final HttpMethod httpMethod, final RequestBody requestBody) {
+		return httpMethod != HttpMethod.POST && (requestBody == null || requestBody.isRepeatable());
+	}
+
+	/** Records a new request, it earns its share of the budget. */
+	void request() {
+		requests.increment();
+		final long earned = Math.round(budgetPercent * UNIT / 100);
+		long current;
+		do {
+			current = budget.get();
+			if (current >= RESERVE) {
+				return;
+			}
+		} while (!budget.compareAndSet(current, Math.min(RESERVE, current + earned)));
+	}
+
+	/** Takes a hedge from the budget, false if it is spent. */
+	boolean hedge() {
+		long current;
+		do {
+			current = budget.get();
+			if (current < UNIT) {
+				budgetExhausted.increment();
+				return false;
+			}
+		} while (!budget.compareAndSet(current, current - UNIT));
+		hedges.increment();
+		return true;
+	}
+
+	void won() {
+		hedgesWon.increment();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("HedgePolicy [delay=%s, requests=%s, hedges=%s, hedgesWon=%s, budgetExhausted=%s]", delay,
+				getRequests(), getHedges(), getHedgesWon(), getBudgetExhausted());
+	}
+
+}
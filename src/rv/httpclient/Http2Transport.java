@@ -0,0 +1,467 @@
+package rv.httpclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           {@link Transport} speaking HTTP/2 through the
+ *           {@code java.net.http.HttpClient} of Java 11 and later. Concurrent
+ *           requests to a host are multiplexed as streams over one
+ *           connection, with HPACK header compression and flow control done
+ *           by the JDK. Servers that do not negotiate h2, by ALPN over TLS or
+ *           by upgrade over plain http, are spoken to in HTTP/1.1 on pooled
+ *           connections of the same client.
+ *           </p>
+ *           <p>
+ *           The library still runs on Java 8, so the JDK client is driven by
+ *           reflection and {@link #isAvailable()} is false before Java 11.
+ *           Setting the system property {@code rv.httpclient.transport=h2}
+ *           makes it the default transport where available.
+ *           </p>
+ *           <p>
+ *           Request bodies are buffered and sent when the response is asked
+ *           for. The read timeout bounds the wait for the response head, the
+ *           body is bounded by the request timeout of the call. Headers the
+ *           JDK client sets itself, such as Host, Connection and
+ *           Content-Length, are not passed on.
+ *           </p>
+ *
+ */
+public final class Http2Transport implements Transport {
+
+	private static final Set<String> RESTRICTED_HEADERS = new HashSet<String>(Arrays.asList("connection",
+			"content-length", "date", "expect", "from", "host", "keep-alive", "proxy-connection", "te",
+			"transfer-encoding", "upgrade", "via", "warning"));
+
+	private static final Api API = Api.load();
+
+	private static volatile Http2Transport defaultTransport;
+
+	/** One client per connect timeout, the JDK sets it per client. */
+	private final ConcurrentHashMap<Integer, Object> clients = new ConcurrentHashMap<Integer, Object>();
+
+	private final LongAdder http2Exchanges = new LongAdder();
+
+	private final LongAdder http1Exchanges = new LongAdder();
+
+	/***
+	 * Creates an engine with its own JDK clients and connections.
+	 *
+	 * @throws IllegalStateException
+	 *             if the JDK has no java.net.http, see {@link #isAvailable()}
+	 */
+	public Http2Transport() {
+		if (API == null) {
+			throw new IllegalStateException("HTTP/2 requires java.net.http, available from Java 11.");
+		}
+	}
+
+	/** Whether the running JDK provides java.net.http. */
+	public static boolean isAvailable() {
+		return API != null;
+	}
+
+	/** Shared engine. */
+	public static Http2Transport getDefault() {
+		Http2Transport transport = defaultTransport;
+		if (transport == null) {
+			synchronized (Http2Transport.class) {
+				if (defaultTransport == null) {
+					defaultTransport = new Http2Transport();
+				}
+				transport = defaultTransport;
+			}
+		}
+		return transport;
+	}
+
+	/** Number of responses received over HTTP/2. */
+	public long getHttp2Exchanges() {
+		return http2Exchanges.sum();
+	}
+
+	/** Number of responses received over HTTP/1.1 because h2 was not negotiated. */
+	public long getHttp1Exchanges() {
+		return http1Exchanges.sum();
+	}
+
+	/** Streams share the connections of the JDK client, they are not pooled. */
+	@Override
+	public boolean isMultiplexed() {
+		return true;
+	}
+
+	@Override
+	public Exchange open(final URL url, final HttpMethod httpMethod, final PooledConnection idle) throws IOException {
+		if (idle != null) {
+			idle.close();
+		}
+		return new Http2Exchange(url, httpMethod == null ? HttpMethod.GET : httpMethod);
+	}
+
+	private Object client(final int connectTimeout) {
+		Object client = clients.get(connectTimeout);
+		if (client == null) {
+			final Object created = API.newClient(connectTimeout);
+			client = clients.putIfAbsent(connectTimeout, created);
+			if (client == null) {
+				client = created;
+			}
+		}
+		return client;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Http2Transport [http2Exchanges=%s, http1Exchanges=%s]", getHttp2Exchanges(),
+				getHttp1Exchanges());
+	}
+
+	private final class Http2Exchange implements Exchange {
+
+		private final URL url;
+
+		private final HttpMethod httpMethod;
+
+		/** Later values replace earlier ones whatever the case of the name, the builder would send both. */
+		private final Map<String, String> requestHeaders = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+
+		private ByteArrayOutputStream requestBody;
+
+		private int connectTimeout;
+
+		private int readTimeout;
+
+		private CompletableFuture<?> pending;
+
+		private Object response;
+
+		private InputStream body;
+
+		private volatile boolean closed;
+
+		private Http2Exchange(URL url, HttpMethod httpMethod) {
+			this.url = url;
+			this.httpMethod = httpMethod;
+		}
+
+		@Override
+		public void setRequestHeader(final String key, final String value) {
+			if (key != null && value != null && !RESTRICTED_HEADERS.contains(key.toLowerCase())) {
+				requestHeaders.put(key, value);
+			}
+		}
+
+		@Override
+		public void setTimeouts(final int connectTimeout, final int readTimeout) {
+			this.connectTimeout = connectTimeout;
+			this.readTimeout = readTimeout;
+		}
+
+		@Override
+		public void setContentLength(final long length) {
+			if (length > 0 && length <= Integer.MAX_VALUE) {
+				requestBody = new ByteArrayOutputStream((int) length);
+			}
+		}
+
+		@Override
+		public OutputStream getRequestBody() {
+			if (requestBody == null) {
+				requestBody = new ByteArrayOutputStream();
+			}
+			return requestBody;
+		}
+
+		@Override
+		public int getResponseCode() throws IOException {
+			return API.statusCode(response());
+		}
+
+		@Override
+		public String getResponseMessage() {
+			// HTTP/2 has no reason phrase
+			return null;
+		}
+
+		@Override
+		public Map<String, List<String>> getResponseHeaders() throws IOException {
+			return API.headers(response());
+		}
+
+		@Override
+		public InputStream getResponseBody() throws IOException {
+			response();
+			return body;
+		}
+
+		@Override
+		public PooledConnection detach() {
+			// the JDK client keeps the shared connection, nothing goes back to the pool
+			close();
+			return null;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			final CompletableFuture<?> pending;
+			final InputStream body;
+			synchronized (this) {
+				pending = this.pending;
+				body = this.body;
+			}
+			if (pending != null) {
+				pending.cancel(true);
+			}
+			if (body != null) {
+				try {
+					body.close();
+				} catch (IOException e) {
+					// the stream is reset either way
+				}
+			}
+		}
+
+		/** Sends the request on the first call and waits for the response head. */
+		private Object response() throws IOException {
+			if (response != null) {
+				return response;
+			}
+			if (closed) {
+				throw new IOException("Exchange closed.");
+			}
+			final Object request;
+			try {
+				request = API.newRequest(url, httpMethod, requestHeaders,
+						requestBody != null ? requestBody.toByteArray() : null, readTimeout);
+			} catch (URISyntaxException | IllegalArgumentException e) {
+				throw new IOException("Invalid request to " + url + ".", e);
+			}
+			final CompletableFuture<?> future = API.sendAsync(client(connectTimeout), request);
+			synchronized (this) {
+				pending = future;
+			}
+			if (closed) {
+				future.cancel(true);
+			}
+			try {
+				response = future.get();
+			} catch (InterruptedException e) {
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the response.");
+			} catch (CancellationException e) {
+				throw new IOException("Exchange closed.", e);
+			} catch (ExecutionException e) {
+				throw API.failure(e.getCause());
+			}
+			synchronized (this) {
+				body = API.body(response);
+			}
+			if (closed) {
+				body.close();
+			}
+			if (API.isHttp2(response)) {
+				http2Exchanges.increment();
+			} else {
+				http1Exchanges.increment();
+			}
+			return response;
+		}
+	}
+
+	/** The parts of java.net.http this transport uses, resolved once. */
+	private static final class Api {
+
+		private final Method newClientBuilder;
+		private final Method clientVersion;
+		private final Method clientConnectTimeout;
+		private final Method clientFollowRedirects;
+		private final Method clientBuild;
+		private final Object http2;
+		private final Object redirectNormal;
+
+		private final Method newRequestBuilder;
+		private final Method requestMethod;
+		private final Method requestHeader;
+		private final Method requestTimeout;
+		private final Method requestBuild;
+		private final Method ofByteArray;
+		private final Method noBody;
+
+		private final Method sendAsync;
+		private final Object ofInputStream;
+
+		private final Method statusCode;
+		private final Method headers;
+		private final Method headersMap;
+		private final Method body;
+		private final Method version;
+
+		private final Class<?> timeoutException;
+
+		private Api(ClassLoader loader) throws ReflectiveOperationException {
+			final Class<?> client = Class.forName("java.net.http.HttpClient", false, loader);
+			final Class<?> clientBuilder = Class.forName("java.net.http.HttpClient$Builder", false, loader);
+			final Class<?> version = Class.forName("java.net.http.HttpClient$Version", false, loader);
+			final Class<?> redirect = Class.forName("java.net.http.HttpClient$Redirect", false, loader);
+			final Class<?> request = Class.forName("java.net.http.HttpRequest", false, loader);
+			final Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder", false, loader);
+			final Class<?> publisher = Class.forName("java.net.http.HttpRequest$BodyPublisher", false, loader);
+			final Class<?> publishers = Class.forName("java.net.http.HttpRequest$BodyPublishers", false, loader);
+			final Class<?> handler = Class.forName("java.net.http.HttpResponse$BodyHandler", false, loader);
+			final Class<?> handlers = Class.forName("java.net.http.HttpResponse$BodyHandlers", false, loader);
+			final Class<?> response = Class.forName("java.net.http.HttpResponse", false, loader);
+			final Class<?> httpHeaders = Class.forName("java.net.http.HttpHeaders", false, loader);
+
+			newClientBuilder = client.getMethod("newBuilder");
+			clientVersion = clientBuilder.getMethod("version", version);
+			clientConnectTimeout = clientBuilder.getMethod("connectTimeout", Duration.class);
+			clientFollowRedirects = clientBuilder.getMethod("followRedirects", redirect);
+			clientBuild = clientBuilder.getMethod("build");
+			http2 = enumValue(version, "HTTP_2");
+			redirectNormal = enumValue(redirect, "NORMAL");
+
+			newRequestBuilder = request.getMethod("newBuilder", java.net.URI.class);
+			requestMethod = requestBuilder.getMethod("method", String.class, publisher);
+			requestHeader = requestBuilder.getMethod("header", String.class, String.class);
+			requestTimeout = requestBuilder.getMethod("timeout", Duration.class);
+			requestBuild = requestBuilder.getMethod("build");
+			ofByteArray = publishers.getMethod("ofByteArray", byte[].class);
+			noBody = publishers.getMethod("noBody");
+
+			sendAsync = client.getMethod("sendAsync", request, handler);
+			ofInputStream = handlers.getMethod("ofInputStream").invoke(null);
+
+			statusCode = response.getMethod("statusCode");
+			headers = response.getMethod("headers");
+			headersMap = httpHeaders.getMethod("map");
+			body = response.getMethod("body");
+			this.version = response.getMethod("version");
+
+			timeoutException = Class.forName("java.net.http.HttpTimeoutException", false, loader);
+		}
+
+		/** Null if the JDK has no java.net.http. */
+		private static Api load() {
+			try {
+				return new Api(Http2Transport.class.getClassLoader());
+			} catch (ReflectiveOperationException | LinkageError e) {
+				return null;
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static Object enumValue(final Class<?> type, final String name) {
+			return Enum.valueOf((Class) type, name);
+		}
+
+		private Object newClient(final int connectTimeout) {
+			Object builder = invoke(newClientBuilder, null);
+			builder = invoke(clientVersion, builder, http2);
+			builder = invoke(clientFollowRedirects, builder, redirectNormal);
+			if (connectTimeout > 0) {
+				builder = invoke(clientConnectTimeout, builder, Duration.ofMillis(connectTimeout));
+			}
+			return invoke(clientBuild, builder);
+		}
+
+		private Object newRequest(final URL url, final HttpMethod httpMethod, final Map<String, String> requestHeaders,
+				final byte[] content, final int readTimeout) throws URISyntaxException {
+			Object builder = invoke(newRequestBuilder, null, url.toURI());
+			final Object publisher = content != null ? invoke(ofByteArray, null, (Object) content)
+					: invoke(noBody, null);
+			builder = invoke(requestMethod, builder, httpMethod.toString(), publisher);
+			for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+				builder = invoke(requestHeader, builder, header.getKey(), header.getValue());
+			}
+			if (readTimeout > 0) {
+				builder = invoke(requestTimeout, builder, Duration.ofMillis(readTimeout));
+			}
+			return invoke(requestBuild, builder);
+		}
+
+		private CompletableFuture<?> sendAsync(final Object client, final Object request) {
+			return (CompletableFuture<?>) invoke(sendAsync, client, request, ofInputStream);
+		}
+
+		private int statusCode(final Object response) {
+			return (Integer) invoke(statusCode, response);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, List<String>> headers(final Object response) {
+			return Collections.unmodifiableMap(
+					(Map<String, List<String>>) invoke(headersMap, invoke(headers, response)));
+		}
+
+		private InputStream body(final Object response) {
+			return (InputStream) invoke(body, response);
+		}
+
+		private boolean isHttp2(final Object response) {
+			return invoke(version, response) == http2;
+		}
+
+		/** Failure of a send as the IOException HttpConnection maps to an error code. */
+		private IOException failure(final Throwable cause) {
+			if (timeoutException.isInstance(cause)) {
+				final SocketTimeoutException timeout = new SocketTimeoutException(cause.getMessage());
+				timeout.initCause(cause);
+				return timeout;
+			}
+			if (cause instanceof IOException) {
+				return (IOException) cause;
+			}
+			return new IOException("HTTP/2 exchange failed.", cause);
+		}
+
+		private static Object invoke(final Method method, final Object target, final Object... args) {
+			try {
+				return method.invoke(target, args);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("java.net.http is not accessible.", e);
+			} catch (InvocationTargetException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+}
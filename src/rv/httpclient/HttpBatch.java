@@ -0,0 +1,174 @@
+package rv.httpclient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import rv.httpclient.util.ResponseCode;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Runs many independent {@link PreparedRequest}s with bounded
+ *           concurrency. At most {@link #getMaxConcurrency()} requests are in
+ *           flight at once and at most {@link #getMaxPerHost()} of them to
+ *           the same scheme, host and port, the remaining requests wait in
+ *           line and hosts take turns as slots free up.
+ *           </p>
+ *           <p>
+ *           {@link #executeAll(Collection)} returns at once, the results are
+ *           taken from the returned {@link BatchExecution} in the order the
+ *           requests complete. The settings can be changed between batches, a
+ *           running batch keeps the ones it was started with.
+ *           </p>
+ *
+ */
+public final class HttpBatch {
+
+	private static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+	private volatile Executor executor;
+
+	private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	private volatile int maxPerHost = ConnectionPool.getDefault().getMaxPerRoute();
+
+	private volatile long timeout;
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the executor running the requests. By default every request runs
+	 * on the executor of its own {@link HttpClientConfig}.
+	 *
+	 * @param executor
+	 *            - executor to run requests on, null for the default
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Run every request on its own virtual thread.
+	 *
+	 * @return false if the running JVM does not support virtual threads, the
+	 *         executor is left unchanged in that case
+	 */
+	public boolean useVirtualThreads() {
+		final Executor executor = HttpClientConfig.virtualThreads();
+		if (executor == null) {
+			return false;
+		}
+		setExecutor(executor);
+		return true;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Set the maximum number of requests of a batch in flight at once.
+	 *
+	 * @param maxConcurrency
+	 *            - limit across all hosts
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = Math.max(1, maxConcurrency);
+	}
+
+	public int getMaxPerHost() {
+		return maxPerHost;
+	}
+
+	/**
+	 * Set the maximum number of requests of a batch in flight at once to a
+	 * single scheme, host and port. Defaults to the per route limit of the
+	 * default {@link ConnectionPool}, none unless it was capped, since more
+	 * would only wait for a connection there.
+	 *
+	 * @param maxPerHost
+	 *            - limit per host
+	 */
+	public void setMaxPerHost(int maxPerHost) {
+		this.maxPerHost = Math.max(1, maxPerHost);
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Set the time in milliseconds a batch may take as a whole. Once it has
+	 * passed, requests still in flight are aborted and the ones still waiting
+	 * are not started. 0 for no limit.
+	 *
+	 * @param timeout
+	 *            - limit in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = Math.max(0, timeout);
+	}
+
+	/**
+	 * Execute the requests. Requests with URL variables fail, use
+	 * {@link #executeAll(PreparedRequest, Collection)} for them.
+	 *
+	 * @param requests
+	 *            - requests to execute
+	 * @return running batch, results are reported with the position of their
+	 *         request in the collection
+	 */
+	public BatchExecution executeAll(Collection<PreparedRequest> requests) {
+		final List<BatchExecution.Item> items = new ArrayList<BatchExecution.Item>(requests.size());
+		for (PreparedRequest request : requests) {
+			items.add(new BatchExecution.Item(items.size(), request, null));
+		}
+		return start(items);
+	}
+
+	/**
+	 * Execute one request once per set of URL variable values, e.g. a fan-out
+	 * read of {@code /users/{id}}.
+	 *
+	 * @param request
+	 *            - request to execute
+	 * @param values
+	 *            - values of the URL variables, one map per call
+	 * @return running batch, results are reported with the position of their
+	 *         values in the collection
+	 */
+	public BatchExecution executeAll(PreparedRequest request, Collection<Map<String, String>> values) {
+		final List<BatchExecution.Item> items = new ArrayList<BatchExecution.Item>(values.size());
+		for (Map<String, String> value : values) {
+			items.add(new BatchExecution.Item(items.size(), request, value));
+		}
+		return start(items);
+	}
+
+	private BatchExecution start(final List<BatchExecution.Item> items) {
+		final BatchExecution batch = new BatchExecution(items, executor, maxConcurrency, maxPerHost);
+		final long timeout = this.timeout;
+		if (timeout > 0 && !items.isEmpty()) {
+			batch.setDeadline(HttpTimer.schedule(() -> batch.cancel(new HttpClientException(
+					ResponseCode.RUNTIME_ERROR, "Batch did not complete within " + timeout + " ms.")), timeout));
+		}
+		batch.dispatch();
+		return batch;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("HttpBatch [maxConcurrency=%s, maxPerHost=%s, timeout=%s]", maxConcurrency, maxPerHost,
+				timeout);
+	}
+
+}
@@ -0,0 +1,744 @@
+package rv.httpclient;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.util.HttpHeader;
+import rv.httpclient.util.ResponseCode;
+import rv.httpclient.util.Status;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Private HTTP cache in front of {@link HttpGet}, see
+ *           {@link HttpGet#setCache(HttpCache)}. Successful responses are kept
+ *           in a memory tier bounded by the bytes of their bodies, least
+ *           recently used first out, and optionally written through to a
+ *           directory bounded the same way.
+ *           </p>
+ *           <p>
+ *           Freshness follows Cache-Control max-age, then Expires, then ten
+ *           percent of the Last-Modified age. Responses marked no-store or
+ *           varying on * are not kept, Vary is matched against the request
+ *           headers. A stale entry is revalidated with If-None-Match and
+ *           If-Modified-Since and a 304 serves it again. Within its
+ *           stale-while-revalidate window a stale entry is served at once
+ *           while it is refreshed in the background.
+ *           </p>
+ *
+ */
+public final class HttpCache {
+
+	/** Upper bound of the heuristic freshness derived from Last-Modified. */
+	private static final long MAX_HEURISTIC = TimeUnit.DAYS.toMillis(1);
+
+	/** Accounted per entry on top of its body for the headers and the key. */
+	private static final int ENTRY_OVERHEAD = 512;
+
+	private static final int MAGIC = 0x52564331;
+
+	private final long maxBytes;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	private long size;
+
+	private final Path directory;
+
+	private final long maxDiskBytes;
+
+	private final LinkedHashMap<String, Long> files = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+	private long diskSize;
+
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder staleHits = new LongAdder();
+
+	private final LongAdder revalidations = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/***
+	 * Cache held in memory only.
+	 *
+	 * @param maxBytes
+	 *            - bytes of response bodies to keep
+	 */
+	public HttpCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+		this.directory = null;
+		this.maxDiskBytes = 0;
+	}
+
+	/***
+	 * Cache with a memory tier and a disk tier. Entries already in the
+	 * directory are picked up.
+	 *
+	 * @param maxBytes
+	 *            - bytes of response bodies to keep in memory
+	 * @param directory
+	 *            - directory of the disk tier, created if missing
+	 * @param maxDiskBytes
+	 *            - bytes of the files to keep in the directory
+	 * @throws IOException
+	 *             if the directory cannot be read
+	 */
+	public HttpCache(long maxBytes, Path directory, long maxDiskBytes) throws IOException {
+		this.maxBytes = maxBytes;
+		this.directory = directory;
+		this.maxDiskBytes = maxDiskBytes;
+		Files.createDirectories(directory);
+		final List<Path> existing = new ArrayList<Path>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.cache")) {
+			for (Path file : stream) {
+				existing.add(file);
+			}
+		}
+		existing.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+		final List<String> evicted;
+		synchronized (files) {
+			for (Path file : existing) {
+				final String name = file.getFileName().toString();
+				final long length = Files.size(file);
+				files.put(name.substring(0, name.length() - ".cache".length()), length);
+				diskSize += length;
+			}
+			evicted = trimDisk();
+		}
+		delete(evicted);
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** Stale entries served while they were refreshed in the background. */
+	public long getStaleHits() {
+		return staleHits.sum();
+	}
+
+	/** Stale entries confirmed by a 304 response. */
+	public long getRevalidations() {
+		return revalidations.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** Bytes accounted to the entries held in memory. */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/** Drops every entry from memory and disk. */
+	public void clear() {
+		synchronized (this) {
+			entries.clear();
+			size = 0;
+		}
+		if (directory != null) {
+			final List<String> names;
+			synchronized (files) {
+				names = new ArrayList<String>(files.keySet());
+				files.clear();
+				diskSize = 0;
+			}
+			delete(names);
+		}
+	}
+
+	/***
+	 * Serves a GET from the cache or the network.
+	 *
+	 * @param url
+	 *            - URL including the query string, the cache key
+	 * @param headers
+	 *            - request headers, may be null
+	 * @param fetch
+	 *            - runs the request over the network
+	 * @param executor
+	 *            - runs background refreshes
+	 * @return HttpResponse - cached or received response
+	 * @throws HttpClientException
+	 */
+	HttpResponse execute(final String url, final Map<String, String> headers, final Fetch fetch,
+			final Executor executor) throws HttpClientException {
+		final Map<String, String> directives = ResponseHeaders.directives(requestHeader(headers, HttpHeader.CACHE_CONTROL.get()));
+		if (bypass(headers, directives)) {
+			return fetch.fetch(headers);
+		}
+		final Entry entry = lookup(url, headers);
+		if (entry != null && !directives.containsKey("no-cache")) {
+			final long now = System.currentTimeMillis();
+			if (entry.isFresh(now)) {
+				hits.increment();
+				return entry.toResponse();
+			}
+			if (entry.isUsableStale(now)) {
+				staleHits.increment();
+				refresh(url, headers, entry, fetch, executor);
+				return entry.toResponse();
+			}
+		}
+		return fetch(url, headers, entry, fetch);
+	}
+
+	/***
+	 * Serves a fresh entry at once, otherwise runs {@link #execute} on the
+	 * executor.
+	 */
+	CompletableFuture<HttpResponse> executeAsync(final String url, final Map<String, String> headers,
+			final Fetch fetch, final Executor executor) {
+		final CompletableFuture<HttpResponse> future = new CompletableFuture<HttpResponse>();
+		final Map<String, String> directives = ResponseHeaders.directives(requestHeader(headers, HttpHeader.CACHE_CONTROL.get()));
+		if (!bypass(headers, directives) && !directives.containsKey("no-cache")) {
+			final Entry entry = lookup(url, headers);
+			if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+				hits.increment();
+				future.complete(entry.toResponse());
+				return future;
+			}
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(execute(url, headers, fetch, executor));
+				} catch (HttpClientException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(
+					new HttpClientException(ResponseCode.RUNTIME_ERROR, "Executor rejected the HttpRequest.", e));
+		}
+		return future;
+	}
+
+	/** Requests the caller made conditional or uncacheable go to the network as they are. */
+	private static boolean bypass(final Map<String, String> headers, final Map<String, String> directives) {
+		return directives.containsKey("no-store") || requestHeader(headers, HttpHeader.IF_NONE_MATCH.get()) != null
+				|| requestHeader(headers, HttpHeader.IF_MODIFIED_SINCE.get()) != null;
+	}
+
+	private HttpResponse fetch(final String url, final Map<String, String> headers, final Entry entry,
+			final Fetch fetch) throws HttpClientException {
+		final HttpResponse response = fetch.fetch(entry != null ? entry.conditional(headers) : headers);
+		final long now = System.currentTimeMillis();
+		if (entry != null && response.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			revalidations.increment();
+			final Entry updated = entry.revalidated(response.getHeaders(), now);
+			put(updated);
+			return updated.toResponse();
+		}
+		misses.increment();
+		if (response.getResponseCode() == HttpURLConnection.HTTP_OK && !response.isStreaming()) {
+			final Entry created = Entry.of(url, headers, response, now);
+			if (created != null) {
+				put(created);
+			} else if (entry != null) {
+				remove(url);
+			}
+		}
+		return response;
+	}
+
+	private void refresh(final String url, final Map<String, String> headers, final Entry entry, final Fetch fetch,
+			final Executor executor) {
+		if (!refreshing.add(url)) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					fetch(url, headers, entry, fetch);
+				} catch (HttpClientException | RuntimeException e) {
+					// the stale entry stays until it can no longer be served
+				} finally {
+					refreshing.remove(url);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(url);
+		}
+	}
+
+	private Entry lookup(final String url, final Map<String, String> headers) {
+		Entry entry;
+		synchronized (this) {
+			entry = entries.get(url);
+		}
+		if (entry == null && directory != null) {
+			entry = load(url);
+			if (entry != null) {
+				putMemory(entry);
+			}
+		}
+		return entry != null && entry.matches(headers) ? entry : null;
+	}
+
+	private void put(final Entry entry) {
+		putMemory(entry);
+		if (directory != null) {
+			store(entry);
+		}
+	}
+
+	private synchronized void putMemory(final Entry entry) {
+		final Entry old = entries.remove(entry.url);
+		if (old != null) {
+			size -= old.weight();
+		}
+		if (entry.weight() > maxBytes) {
+			return;
+		}
+		entries.put(entry.url, entry);
+		size += entry.weight();
+		final Iterator<Entry> it = entries.values().iterator();
+		while (size > maxBytes && it.hasNext()) {
+			size -= it.next().weight();
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	private void remove(final String url) {
+		synchronized (this) {
+			final Entry old = entries.remove(url);
+			if (old != null) {
+				size -= old.weight();
+			}
+		}
+		if (directory != null) {
+			dropFile(fileName(url));
+		}
+	}
+
+	private void dropFile(final String name) {
+		final Long length;
+		synchronized (files) {
+			length = files.remove(name);
+			if (length != null) {
+				diskSize -= length;
+			}
+		}
+		if (length != null) {
+			delete(name);
+		}
+	}
+
+	/**
+	 * Reads an entry from disk. The files lock only guards the index, the
+	 * file is read without it so that other threads are not held up by the
+	 * disk.
+	 */
+	private Entry load(final String url) {
+		final String name = fileName(url);
+		synchronized (files) {
+			if (files.get(name) == null) {
+				return null;
+			}
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(directory.resolve(name + ".cache"))))) {
+			final Entry entry = Entry.read(in);
+			return url.equals(entry.url) ? entry : null;
+		} catch (IOException e) {
+			dropFile(name);
+			return null;
+		}
+	}
+
+	/** Writes an entry to disk, outside the files lock like {@link #load(String)}. */
+	private void store(final Entry entry) {
+		final String name = fileName(entry.url);
+		Path temp = null;
+		try {
+			// a file of its own, other threads may be storing the same URL
+			temp = Files.createTempFile(directory, name, ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				entry.write(out);
+			}
+			final long length = Files.size(temp);
+			Files.move(temp, directory.resolve(name + ".cache"), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			final List<String> evicted;
+			synchronized (files) {
+				final Long old = files.put(name, length);
+				diskSize += length - (old != null ? old : 0);
+				evicted = trimDisk();
+			}
+			delete(evicted);
+		} catch (IOException e) {
+			// the disk tier is best effort, the entry stays in memory
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException ignored) {
+					// nothing left to do
+				}
+			}
+		}
+	}
+
+	/** Called with the files lock held, returns the names to delete once it is released. */
+	private List<String> trimDisk() {
+		List<String> evicted = Collections.emptyList();
+		final Iterator<Map.Entry<String, Long>> it = files.entrySet().iterator();
+		while (diskSize > maxDiskBytes && it.hasNext()) {
+			final Map.Entry<String, Long> eldest = it.next();
+			diskSize -= eldest.getValue();
+			it.remove();
+			if (evicted.isEmpty()) {
+				evicted = new ArrayList<String>();
+			}
+			evicted.add(eldest.getKey());
+			evictions.increment();
+		}
+		return evicted;
+	}
+
+	private void delete(final List<String> names) {
+		for (String name : names) {
+			delete(name);
+		}
+	}
+
+	private void delete(final String name) {
+		try {
+			Files.deleteIfExists(directory.resolve(name + ".cache"));
+		} catch (IOException e) {
+			// picked up and replaced on the next store
+		}
+	}
+
+	private static String fileName(final String url) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String requestHeader(final Map<String, String> headers, final String name) {
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				if (name.equalsIgnoreCase(header.getKey())) {
+					return header.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	private static long seconds(final String value) {
+		if (value != null) {
+			try {
+				return Math.max(0, Long.parseLong(value.trim())) * 1000;
+			} catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private static long date(final String value) {
+		if (value != null) {
+			try {
+				return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("HttpCache [size=%s, hits=%s, staleHits=%s, revalidations=%s, misses=%s, evictions=%s]",
+				getSize(), getHits(), getStaleHits(), getRevalidations(), getMisses(), getEvictions());
+	}
+
+	/**
+	 * Stored response, immutable. Its body array is shared by every response
+	 * served from it.
+	 */
+	private static final class Entry {
+
+		private final String url;
+
+		private final int responseCode;
+
+		private final String responseMessage;
+
+		private final ResponseHeaders headers;
+
+		private final byte[] body;
+
+		private final int bodyLength;
+
+		/** When the response was received or last validated. */
+		private final long responseTime;
+
+		/** Request header values the response varies on, by lower-case name. */
+		private final Map<String, String> vary;
+
+		private final long lifetime;
+
+		private final long initialAge;
+
+		private final long staleWhileRevalidate;
+
+		private final boolean noCache;
+
+		private final boolean mustRevalidate;
+
+		private final String etag;
+
+		private final String lastModified;
+
+		private Entry(String url, int responseCode, String responseMessage, ResponseHeaders headers,
+				byte[] body, int bodyLength, long responseTime, Map<String, String> vary) {
+			this.url = url;
+			this.responseCode = responseCode;
+			this.responseMessage = responseMessage;
+			this.headers = headers;
+			this.body = body;
+			this.bodyLength = bodyLength;
+			this.responseTime = responseTime;
+			this.vary = vary;
+
+			final Map<String, String> directives = headers.getCacheControl();
+			final long date = headers.getDate(HttpHeader.DATE.get());
+			final long reference = date > 0 ? date : responseTime;
+			this.etag = headers.getJoined(HttpHeader.ETAG.get());
+			this.lastModified = headers.getJoined(HttpHeader.LAST_MODIFIED.get());
+			final long maxAge = seconds(directives.get("max-age"));
+			if (maxAge >= 0) {
+				this.lifetime = maxAge;
+			} else if (headers.contains(HttpHeader.EXPIRES.get())) {
+				this.lifetime = Math.max(0, headers.getDate(HttpHeader.EXPIRES.get()) - reference);
+			} else if (lastModified != null && date(lastModified) > 0) {
+				this.lifetime = Math.min(MAX_HEURISTIC, Math.max(0, (reference - date(lastModified)) / 10));
+			} else {
+				this.lifetime = 0;
+			}
+			this.initialAge = Math.max(0, seconds(headers.getJoined(HttpHeader.AGE.get())));
+			this.staleWhileRevalidate = Math.max(0, seconds(directives.get("stale-while-revalidate")));
+			this.noCache = directives.containsKey("no-cache");
+			this.mustRevalidate = directives.containsKey("must-revalidate");
+		}
+
+		/** Entry of a 200 response, null if it may not be stored. */
+		private static Entry of(final String url, final Map<String, String> requestHeaders,
+				final HttpResponse response, final long now) throws HttpClientException {
+			final ResponseHeaders headers = response.getHeaders();
+			if (headers.getCacheControl().containsKey("no-store")) {
+				return null;
+			}
+			final Map<String, String> vary = new HashMap<String, String>();
+			final String varyHeader = headers.getJoined(HttpHeader.VARY.get());
+			if (varyHeader != null) {
+				for (String name : varyHeader.split(",")) {
+					final String key = name.trim().toLowerCase(Locale.ROOT);
+					if ("*".equals(key)) {
+						return null;
+					}
+					if (!key.isEmpty()) {
+						vary.put(key, requestHeader(requestHeaders, key));
+					}
+				}
+			}
+			final byte[] body = response.shareBody();
+			final Entry entry = new Entry(url, response.getResponseCode(), response.getResponseMessage(), headers, body,
+					body != null ? response.getBodyLength() : 0, now, vary);
+			return entry.lifetime > 0 || entry.staleWhileRevalidate > 0 || entry.etag != null
+					|| entry.lastModified != null ? entry : null;
+		}
+
+		private long age(final long now) {
+			return initialAge + Math.max(0, now - responseTime);
+		}
+
+		private boolean isFresh(final long now) {
+			return !noCache && age(now) < lifetime;
+		}
+
+		private boolean isUsableStale(final long now) {
+			return !noCache && !mustRevalidate && age(now) < lifetime + staleWhileRevalidate;
+		}
+
+		private boolean matches(final Map<String, String> requestHeaders) {
+			for (Map.Entry<String, String> header : vary.entrySet()) {
+				if (!Objects.equals(header.getValue(), requestHeader(requestHeaders, header.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private long weight() {
+			return bodyLength + ENTRY_OVERHEAD;
+		}
+
+		private Map<String, String> conditional(final Map<String, String> requestHeaders) {
+			if (etag == null && lastModified == null) {
+				return requestHeaders;
+			}
+			final Map<String, String> conditional = requestHeaders != null
+					? new HashMap<String, String>(requestHeaders) : new HashMap<String, String>();
+			if (etag != null) {
+				conditional.put("If-None-Match", etag);
+			}
+			if (lastModified != null) {
+				conditional.put("If-Modified-Since", lastModified);
+			}
+			return conditional;
+		}
+
+		/** The stored response with the headers of a 304 applied. */
+		private Entry revalidated(final ResponseHeaders notModified, final long now) {
+			final Map<String, List<String>> merged = new LinkedHashMap<String, List<String>>(headers);
+			for (Map.Entry<String, List<String>> header : notModified.entrySet()) {
+				final String name = header.getKey();
+				if (name == null || "Content-Length".equalsIgnoreCase(name)) {
+					continue;
+				}
+				merged.keySet().removeIf(key -> name.equalsIgnoreCase(key));
+				merged.put(name, header.getValue());
+			}
+			return new Entry(url, responseCode, responseMessage, ResponseHeaders.of(merged), body,
+					bodyLength, now, vary);
+		}
+
+		private HttpResponse toResponse() {
+			final HttpResponse response = new HttpResponse();
+			response.setResponseCode(responseCode);
+			response.setResponseMessage(responseMessage);
+			response.setHeaders(headers);
+			response.getHttpAck().setStatus(Status.SUCCESS);
+			if (body != null) {
+				response.setSharedBody(body, bodyLength);
+			}
+			return response;
+		}
+
+		private void write(final DataOutputStream out) throws IOException {
+			out.writeInt(MAGIC);
+			out.writeUTF(url);
+			out.writeInt(responseCode);
+			writeNullable(out, responseMessage);
+			out.writeLong(responseTime);
+			out.writeInt(vary.size());
+			for (Map.Entry<String, String> header : vary.entrySet()) {
+				out.writeUTF(header.getKey());
+				writeNullable(out, header.getValue());
+			}
+			out.writeInt(headers.size());
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				writeNullable(out, header.getKey());
+				final List<String> values = header.getValue() != null ? header.getValue()
+						: Collections.<String> emptyList();
+				out.writeInt(values.size());
+				for (String value : values) {
+					writeNullable(out, value);
+				}
+			}
+			out.writeInt(body != null ? bodyLength : -1);
+			if (body != null) {
+				out.write(body, 0, bodyLength);
+			}
+		}
+
+		private static Entry read(final DataInputStream in) throws IOException {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a cache entry.");
+			}
+			final String url = in.readUTF();
+			final int responseCode = in.readInt();
+			final String responseMessage = readNullable(in);
+			final long responseTime = in.readLong();
+			final Map<String, String> vary = new HashMap<String, String>();
+			for (int i = in.readInt(); i > 0; i--) {
+				vary.put(in.readUTF(), readNullable(in));
+			}
+			final Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+			for (int i = in.readInt(); i > 0; i--) {
+				final String name = readNullable(in);
+				final List<String> values = new ArrayList<String>();
+				for (int j = in.readInt(); j > 0; j--) {
+					values.add(readNullable(in));
+				}
+				headers.put(name, Collections.unmodifiableList(values));
+			}
+			final int bodyLength = in.readInt();
+			byte[] body = null;
+			if (bodyLength >= 0) {
+				body = new byte[bodyLength];
+				in.readFully(body);
+			}
+			return new Entry(url, responseCode, responseMessage, ResponseHeaders.of(headers), body,
+					Math.max(0, bodyLength), responseTime, vary);
+		}
+
+		private static void writeNullable(final DataOutputStream out, final String value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				out.writeUTF(value);
+			}
+		}
+
+		private static String readNullable(final DataInputStream in) throws IOException {
+			return in.readBoolean() ? in.readUTF() : null;
+		}
+	}
+
+}
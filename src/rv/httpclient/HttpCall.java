@@ -0,0 +1,741 @@
+package rv.httpclient;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+import rv.httpclient.util.Status;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Snapshot of a single request taken by the handlers when execute
+ *           is called. Runs the request on an {@link HttpConnection}, either
+ *           on the calling thread or on the configured executor.
+ *           </p>
+ *           <p>
+ *           With a {@link RetryPolicy} a failed attempt is repeated on a new
+ *           connection after the delay the policy asks for. With a
+ *           {@link HedgePolicy} a slow attempt is raced by a second one. The
+ *           request timeout of the {@link Timeouts} aborts the call as a
+ *           whole.
+ *           </p>
+ *
+ */
+final class HttpCall {
+
+	private final HttpMethod httpMethod;
+	private final String url;
+	private final URL target;
+	private final Map<String, String> queryParams;
+	private final Map<String, String> headers;
+	private final HeaderBlock headerBlock;
+	private final RequestBody requestBody;
+	private final HttpClientConfig config;
+	private boolean streaming;
+	private long requestCompression = -1;
+	private RetryPolicy retryPolicy;
+	private HedgePolicy hedgePolicy;
+	private Timeouts timeouts;
+	private volatile HttpConnection current;
+	private volatile HttpConnection hedging;
+	private volatile boolean aborted;
+	private boolean timedOut;
+	private boolean finished;
+	/** System.nanoTime() when the request timeout expires, unused without one. */
+	private volatile long deadline;
+	/** Next attempt of an asynchronous call waiting for its delay, run at once by abort. */
+	private volatile Runnable pendingRetry;
+
+	HttpCall(HttpMethod httpMethod, String url, Map<String, String> queryParams, Map<String, String> headers,
+			RequestBody requestBody, HttpClientConfig config) {
+		this.httpMethod = httpMethod;
+		this.url = url;
+		this.target = null;
+		this.queryParams = queryParams;
+		this.headers = headers;
+		this.headerBlock = null;
+		this.requestBody = requestBody;
+		this.config = config;
+	}
+
+	/** Call of a {@link PreparedRequest}, the URL and headers are final. */
+	HttpCall(HttpMethod httpMethod, URL target, HeaderBlock headerBlock, RequestBody requestBody,
+			HttpClientConfig config) {
+		this.httpMethod = httpMethod;
+		this.url = null;
+		this.target = target;
+		this.queryParams = null;
+		this.headers = null;
+		this.headerBlock = headerBlock;
+		this.requestBody = requestBody;
+		this.config = config;
+	}
+
+	/** Hand the live body to the response instead of buffering it. */
+	HttpCall setStreaming(boolean streaming) {
+		this.streaming = streaming;
+		return this;
+	}
+
+	/** Gzip request bodies of at least the given size, -1 to never compress. */
+	HttpCall setRequestCompression(long minSize) {
+		this.requestCompression = minSize;
+		return this;
+	}
+
+	/** Retry failed attempts as the policy allows, null to never retry. */
+	HttpCall setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+
+	/** Race slow attempts with a second one as the policy allows, null to never hedge. */
+	HttpCall setHedgePolicy(HedgePolicy hedgePolicy) {
+		this.hedgePolicy = hedgePolicy;
+		return this;
+	}
+
+	/** Time limits of the call, null for those of the configuration. */
+	HttpCall setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+		return this;
+	}
+
+	HttpResponse execute() throws HttpClientException {
+		return execute(newConnection());
+	}
+
+	/**
+	 * Runs the request on the configured executor. A thread is only taken to
+	 * send the request and to read a response that has arrived, where the
+	 * transport can tell, see {@link Exchange#sendAsync(long)}. Otherwise it
+	 * waits for the response as well. Cancelling the returned future aborts
+	 * the connection.
+	 */
+	CompletableFuture<HttpResponse> executeAsync() {
+		return executeAsync(config.getExecutor());
+	}
+
+	/** Runs the request on the given executor instead of the configured one. */
+	CompletableFuture<HttpResponse> executeAsync(final Executor executor) {
+		final HttpConnection conn = newConnection();
+		final CompletableFuture<HttpResponse> future = new CompletableFuture<HttpResponse>();
+		future.whenComplete((response, failure) -> {
+			if (future.isCancelled()) {
+				abort();
+			}
+		});
+		final ScheduledFuture<?> deadline = startDeadline();
+		final CompletableFuture<HttpResponse> call = new CompletableFuture<HttpResponse>();
+		call.whenComplete((response, failure) -> {
+			final HttpClientException e = failure != null ? timedOut(failure(failure)) : null;
+			finish(deadline);
+			if (e != null) {
+				future.completeExceptionally(e);
+			} else {
+				future.complete(response);
+			}
+		});
+		if (retryPolicy != null) {
+			retryPolicy.request();
+		}
+		retryAsync(conn, executor, 1, 0, call);
+		return future;
+	}
+
+	private HttpConnection newConnection() {
+		final HttpConnection conn = new HttpConnection(ConnectionPool.getDefault(), config.getTransport());
+		current = conn;
+		return conn;
+	}
+
+	/** Aborts the attempt in flight and any retry still to come. */
+	private void abort() {
+		synchronized (this) {
+			aborted = true;
+			notifyAll();
+		}
+		final HttpConnection conn = current;
+		if (conn != null) {
+			conn.abort();
+		}
+		final HttpConnection hedge = hedging;
+		if (hedge != null) {
+			hedge.abort();
+		}
+		final Runnable retry = pendingRetry;
+		if (retry != null) {
+			retry.run();
+		}
+	}
+
+	private Timeouts timeouts() {
+		return timeouts != null ? timeouts : config.getTimeouts();
+	}
+
+	private HttpResponse execute(final HttpConnection first) throws HttpClientException {
+		final ScheduledFuture<?> deadline = startDeadline();
+		try {
+			return retry(first);
+		} catch (HttpClientException e) {
+			throw timedOut(e);
+		} finally {
+			finish(deadline);
+		}
+	}
+
+	/** Schedules the request timeout, null without one. */
+	private ScheduledFuture<?> startDeadline() {
+		final long requestTimeout = timeouts().getRequestTimeout();
+		if (requestTimeout == 0) {
+			return null;
+		}
+		this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestTimeout);
+		return HttpTimer.schedule(this::expire, requestTimeout);
+	}
+
+	/** Failure of the call, reported as a timeout if the request timeout aborted it. */
+	private synchronized HttpClientException timedOut(final HttpClientException e) {
+		if (timedOut) {
+			return new HttpClientException(ResponseCode.TIMEOUT,
+					"HttpRequest did not complete within " + timeouts().getRequestTimeout() + " ms.", e);
+		}
+		return e;
+	}
+
+	/** Marks the call as returned, the request timeout no longer applies. */
+	private void finish(final ScheduledFuture<?> deadline) {
+		synchronized (this) {
+			finished = true;
+		}
+		if (deadline != null) {
+			deadline.cancel(false);
+		}
+	}
+
+	private synchronized boolean isTimedOut() {
+		return timedOut;
+	}
+
+	/** Aborts the call once the request timeout has passed, unless it returned. */
+	private synchronized void expire() {
+		if (!finished) {
+			timedOut = true;
+			abort();
+		}
+	}
+
+	private HttpResponse retry(final HttpConnection first) throws HttpClientException {
+		final RetryPolicy retryPolicy = this.retryPolicy;
+		if (retryPolicy == null) {
+			return send(first);
+		}
+		retryPolicy.request();
+		HttpConnection conn = first;
+		long delay = 0;
+		for (int attempt = 1;; attempt++) {
+			HttpResponse response = null;
+			HttpClientException failure = null;
+			try {
+				response = send(conn);
+			} catch (HttpClientException e) {
+				failure = e;
+			}
+			delay = aborted ? -1 : retryPolicy.delay(httpMethod, requestBody, attempt, delay, response, failure);
+			if (delay < 0) {
+				if (failure != null) {
+					throw failure;
+				}
+				return response;
+			}
+			pause(delay);
+			conn = newConnection();
+			if (aborted) {
+				conn.abort();
+			}
+		}
+	}
+
+	private synchronized void pause(final long delay) throws HttpClientException {
+		final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		long left = delay;
+		try {
+			while (!aborted && left > 0) {
+				wait(left);
+				left = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Interrupted while waiting to retry.", e);
+		}
+		if (aborted) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "HttpRequest was aborted.");
+		}
+	}
+
+	/***
+	 * Asynchronous counterpart of {@link #retry(HttpConnection)}. The delay
+	 * before the next attempt is left to the timer, no thread waits for it.
+	 *
+	 * @param attempt
+	 *            - number of the attempt, from 1
+	 * @param delay
+	 *            - delay before this attempt, 0 for the first
+	 * @param call
+	 *            - completed with the outcome of the last attempt
+	 */
+	private void retryAsync(final HttpConnection conn, final Executor executor, final int attempt, final long delay,
+			final CompletableFuture<HttpResponse> call) {
+		sendAsync(conn, executor).whenComplete((response, failure) -> {
+			final HttpClientException e = failure != null ? failure(failure) : null;
+			final RetryPolicy retryPolicy = this.retryPolicy;
+			final long next = retryPolicy == null || aborted ? -1
+					: retryPolicy.delay(httpMethod, requestBody, attempt, delay, response, e);
+			if (next < 0) {
+				complete(call, response, e);
+				return;
+			}
+			final AtomicBoolean claimed = new AtomicBoolean();
+			final Runnable retry = () -> {
+				if (!claimed.compareAndSet(false, true)) {
+					return;
+				}
+				pendingRetry = null;
+				if (aborted) {
+					call.completeExceptionally(
+							new HttpClientException(ResponseCode.RUNTIME_ERROR, "HttpRequest was aborted."));
+					return;
+				}
+				final HttpConnection retried = newConnection();
+				if (aborted) {
+					retried.abort();
+				}
+				retryAsync(retried, executor, attempt + 1, next, call);
+			};
+			pendingRetry = retry;
+			if (aborted) {
+				// abort() may have looked for a pending retry before it was set
+				retry.run();
+				return;
+			}
+			HttpTimer.schedule(retry, next);
+		});
+	}
+
+	/** One attempt, hedged if the policy accepts the request. */
+	private HttpResponse send(final HttpConnection conn) throws HttpClientException {
+		final HedgePolicy hedgePolicy = this.hedgePolicy;
+		if (hedgePolicy == null || !hedgePolicy.accepts(httpMethod, requestBody)) {
+			return attempt(conn);
+		}
+		hedgePolicy.request();
+		final Hedge hedge = new Hedge(hedgePolicy, conn, null);
+		final ScheduledFuture<?> timer = HttpTimer.schedule(hedge, hedgePolicy.getDelay());
+		final HttpResponse response;
+		try {
+			response = attempt(conn);
+		} catch (HttpClientException e) {
+			if (hedge.state.compareAndSet(Hedge.WAITING, Hedge.DONE)) {
+				timer.cancel(false);
+				throw e;
+			}
+			// the hedge was sent, its response is as good as ours
+			final HttpResponse other = hedge.await();
+			if (other == null) {
+				throw e;
+			}
+			return other;
+		}
+		if (hedge.state.compareAndSet(Hedge.WAITING, Hedge.DONE)) {
+			timer.cancel(false);
+			return response;
+		}
+		if (hedge.winner.compareAndSet(Hedge.NONE, Hedge.PRIMARY)) {
+			final HttpConnection loser = hedge.conn;
+			if (loser != null) {
+				loser.abort();
+			}
+			return response;
+		}
+		response.close();
+		return hedge.await();
+	}
+
+	/** Asynchronous counterpart of {@link #send(HttpConnection)}, the hedge is raced without a waiting thread. */
+	private CompletableFuture<HttpResponse> sendAsync(final HttpConnection conn, final Executor executor) {
+		final HedgePolicy hedgePolicy = this.hedgePolicy;
+		if (hedgePolicy == null || !hedgePolicy.accepts(httpMethod, requestBody)) {
+			return attemptAsync(conn, executor);
+		}
+		hedgePolicy.request();
+		final Hedge hedge = new Hedge(hedgePolicy, conn, executor);
+		final ScheduledFuture<?> timer = HttpTimer.schedule(hedge, hedgePolicy.getDelay());
+		final CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+		attemptAsync(conn, executor).whenComplete((response, failure) -> {
+			if (hedge.state.compareAndSet(Hedge.WAITING, Hedge.DONE)) {
+				timer.cancel(false);
+				complete(result, response, failure);
+			} else if (failure != null) {
+				// the hedge was sent, its response is as good as ours
+				hedge.result.thenAccept(other -> complete(result, other, other == null ? failure : null));
+			} else if (hedge.winner.compareAndSet(Hedge.NONE, Hedge.PRIMARY)) {
+				final HttpConnection loser = hedge.conn;
+				if (loser != null) {
+					loser.abort();
+				}
+				result.complete(response);
+			} else {
+				response.close();
+				hedge.result.thenAccept(result::complete);
+			}
+		});
+		return result;
+	}
+
+	private HttpResponse attempt(final HttpConnection conn) throws HttpClientException {
+		final URL target = target();
+		final CircuitBreaker circuitBreaker = config.getCircuitBreaker();
+		if (circuitBreaker == null) {
+			return attempt(conn, target);
+		}
+		final CircuitBreaker.Permit permit = circuitBreaker.acquire(target);
+		if (permit == null) {
+			return circuitOpen(target);
+		}
+		HttpResponse response = null;
+		HttpClientException failure = null;
+		try {
+			response = attempt(conn, target);
+			return response;
+		} catch (HttpClientException e) {
+			failure = e;
+			throw e;
+		} finally {
+			record(permit, conn, response, failure);
+		}
+	}
+
+	/** Asynchronous counterpart of {@link #attempt(HttpConnection)}, started on the executor. */
+	private CompletableFuture<HttpResponse> attemptAsync(final HttpConnection conn, final Executor executor) {
+		final CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+		try {
+			executor.execute(() -> {
+				try {
+					final URL target = target();
+					final CircuitBreaker circuitBreaker = config.getCircuitBreaker();
+					if (circuitBreaker == null) {
+						attemptAsync(conn, target, executor, result);
+						return;
+					}
+					final CircuitBreaker.Permit permit = circuitBreaker.acquire(target);
+					if (permit == null) {
+						result.complete(circuitOpen(target));
+						return;
+					}
+					final CompletableFuture<HttpResponse> attempt = new CompletableFuture<HttpResponse>();
+					attempt.whenComplete((response, failure) -> {
+						record(permit, conn, response, failure);
+						complete(result, response, failure);
+					});
+					attemptAsync(conn, target, executor, attempt);
+				} catch (HttpClientException | RuntimeException e) {
+					result.completeExceptionally(failure(e));
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(
+					new HttpClientException(ResponseCode.RUNTIME_ERROR, "Executor rejected the HttpRequest.", e));
+		}
+		return result;
+	}
+
+	private URL target() throws HttpClientException {
+		return this.target != null ? this.target
+				: HttpConnection.parse(this.queryParams != null
+						? HttpConnection.withQueryParams(this.url, this.queryParams) : this.url);
+	}
+
+	/** Tells the circuit breaker how an attempt went. */
+	private void record(final CircuitBreaker.Permit permit, final HttpConnection conn, final HttpResponse response,
+			final Throwable failure) {
+		try {
+			if (response != null) {
+				permit.record(response.getResponseCode() >= 500);
+			} else if (failure != null && (!conn.isAborted() || isTimedOut())) {
+				// a lost hedge or a cancelled call says nothing about the host
+				permit.record(true);
+			}
+		} finally {
+			// nothing recorded, the trial slot of a half-open circuit goes back
+			permit.release();
+		}
+	}
+
+	/** Response of a request failed by an open circuit, nothing was sent. */
+	private static HttpResponse circuitOpen(final URL target) {
+		final HttpResponse response = new HttpResponse();
+		final HttpAck ack = response.getHttpAck();
+		ack.setStatus(Status.FAILURE);
+		ack.setErrorType(ResponseCode.CIRCUIT_OPEN);
+		ack.setErrorMessage("Circuit open for " + ConnectionPool.Route.of(target) + ".");
+		return response;
+	}
+
+	private HttpResponse attempt(final HttpConnection conn, final URL target) throws HttpClientException {
+		final RequestTimings timings = timings(target);
+		HttpResponse response = null;
+		HttpClientException failure = null;
+		try {
+			prepare(conn, target, timings);
+			response = conn.execute(this.streaming);
+			return response;
+		} catch (HttpClientException e) {
+			failure = e;
+			throw e;
+		} finally {
+			release(conn, timings, response, failure);
+		}
+	}
+
+	/***
+	 * Sends the request and reads the response once it has arrived. The
+	 * executor thread is let go in between if the transport can tell when
+	 * that is, otherwise it waits for the response.
+	 *
+	 * @param result
+	 *            - completed with the response
+	 */
+	private void attemptAsync(final HttpConnection conn, final URL target, final Executor executor,
+			final CompletableFuture<HttpResponse> result) {
+		final RequestTimings timings = timings(target);
+		final CompletableFuture<Void> ready;
+		try {
+			prepare(conn, target, timings);
+			ready = conn.sendAsync(this.streaming);
+		} catch (HttpClientException | RuntimeException e) {
+			final HttpClientException failure = failure(e);
+			release(conn, timings, null, failure);
+			result.completeExceptionally(failure);
+			return;
+		}
+		if (ready == null) {
+			receive(conn, timings, result);
+			return;
+		}
+		// completed by the transport, the response is read on the executor
+		ready.whenComplete((ignored, failure) -> {
+			try {
+				executor.execute(() -> receive(conn, timings, result));
+			} catch (RejectedExecutionException e) {
+				conn.abort();
+				final HttpClientException rejected = new HttpClientException(ResponseCode.RUNTIME_ERROR,
+						"Executor rejected the HttpRequest.", e);
+				release(conn, timings, null, rejected);
+				result.completeExceptionally(rejected);
+			}
+		});
+	}
+
+	/** Reads the response of an attempt started by attemptAsync. */
+	private void receive(final HttpConnection conn, final RequestTimings timings,
+			final CompletableFuture<HttpResponse> result) {
+		HttpResponse response = null;
+		HttpClientException failure = null;
+		try {
+			response = conn.execute(this.streaming);
+		} catch (HttpClientException | RuntimeException e) {
+			failure = failure(e);
+		}
+		release(conn, timings, response, failure);
+		complete(result, response, failure);
+	}
+
+	private RequestTimings timings(final URL target) {
+		return config.hasRequestListeners() ? new RequestTimings(this.httpMethod, target) : null;
+	}
+
+	/** Opens the connection and writes the request to it. */
+	private void prepare(final HttpConnection conn, final URL target, final RequestTimings timings)
+			throws HttpClientException {
+		conn.setTimings(timings);
+		conn.setDecompression(config.isDecompression());
+		conn.setCompressionStats(config.getCompressionStats());
+		conn.setRequestCompression(this.requestCompression);
+		conn.setTimeouts(timeouts());
+		conn.open(target, this.httpMethod);
+		conn.setMaxBodySize(config.getMaxBodySize());
+		if (this.headerBlock != null) {
+			conn.addHeaders(this.headerBlock);
+		} else {
+			conn.addHeaders(this.headers);
+		}
+		conn.addBody(this.requestBody);
+	}
+
+	/** Ends an attempt, the connection goes back to the pool and the listeners are told. */
+	private void release(final HttpConnection conn, final RequestTimings timings, final HttpResponse response,
+			final HttpClientException failure) {
+		conn.release();
+		if (timings != null) {
+			timings.complete(response, failure);
+			config.notifyRequestListeners(timings);
+		}
+	}
+
+	private static void complete(final CompletableFuture<HttpResponse> future, final HttpResponse response,
+			final Throwable failure) {
+		if (failure != null) {
+			future.completeExceptionally(failure);
+		} else {
+			future.complete(response);
+		}
+	}
+
+	/** Failure of an asynchronous attempt as the synchronous one would throw it. */
+	private static HttpClientException failure(final Throwable e) {
+		final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		if (cause instanceof HttpClientException) {
+			return (HttpClientException) cause;
+		}
+		return new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to execute HttpRequest.", cause);
+	}
+
+	/** Second attempt of a request, sent by the timer if the first is slow. */
+	private final class Hedge implements Runnable {
+
+		private static final int WAITING = 0;
+		private static final int SENT = 1;
+		private static final int DONE = 2;
+
+		private static final int NONE = 0;
+		private static final int PRIMARY = 1;
+		private static final int HEDGE = 2;
+
+		private final HedgePolicy policy;
+		private final HttpConnection primary;
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+		private final AtomicInteger winner = new AtomicInteger(NONE);
+		/** Claimed by whichever thread sends the hedge, the executor or the waiting primary. */
+		private final AtomicBoolean started = new AtomicBoolean();
+		private final CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+		/** Executor of an asynchronous call, null if the primary waits for the hedge. */
+		private final Executor async;
+		private volatile HttpConnection conn;
+
+		private Hedge(HedgePolicy policy, HttpConnection primary, Executor async) {
+			this.policy = policy;
+			this.primary = primary;
+			this.async = async;
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				if (!state.compareAndSet(WAITING, SENT)) {
+					return;
+				}
+				if (aborted || !policy.hedge()) {
+					result.complete(null);
+					return;
+				}
+				final HttpConnection conn = new HttpConnection(ConnectionPool.getDefault(), config.getTransport());
+				this.conn = conn;
+				hedging = conn;
+			}
+			if (async != null) {
+				started.set(true);
+				attemptAsync(conn, async).whenComplete(this::settle);
+				return;
+			}
+			try {
+				config.getExecutor().execute(this::send);
+			} catch (RejectedExecutionException e) {
+				if (started.compareAndSet(false, true)) {
+					result.complete(null);
+				}
+			}
+		}
+
+		/** Sends the hedge unless another thread already did. */
+		private void send() {
+			if (!started.compareAndSet(false, true)) {
+				return;
+			}
+			if (aborted || winner.get() != NONE) {
+				result.complete(null);
+				return;
+			}
+			try {
+				settle(attempt(conn), null);
+			} catch (HttpClientException | RuntimeException e) {
+				settle(null, e);
+			}
+		}
+
+		/** Races the outcome of the hedge against the primary. */
+		private void settle(final HttpResponse response, final Throwable failure) {
+			if (failure != null) {
+				result.complete(null);
+			} else if (winner.compareAndSet(NONE, HEDGE)) {
+				policy.won();
+				result.complete(response);
+				primary.abort();
+			} else {
+				response.close();
+				result.complete(null);
+			}
+		}
+
+		/**
+		 * Response of the hedge once it is done, null if it failed or lost. A
+		 * hedge still queued on the executor is sent by the calling thread, the
+		 * executor may be busy with callers waiting like this one.
+		 */
+		private HttpResponse await() throws HttpClientException {
+			final boolean sent;
+			synchronized (this) {
+				// run() has passed WAITING, conn is set unless it gave up
+				sent = conn != null;
+			}
+			if (sent) {
+				send();
+			}
+			try {
+				if (timeouts().getRequestTimeout() == 0) {
+					return result.get();
+				}
+				return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Interrupted while waiting for the HttpRequest.",
+						e);
+			} catch (TimeoutException e) {
+				final HttpConnection conn = this.conn;
+				if (conn != null) {
+					conn.abort();
+				}
+				throw new HttpClientException(ResponseCode.TIMEOUT,
+						"HttpRequest did not complete within " + timeouts().getRequestTimeout() + " ms.");
+			} catch (ExecutionException e) {
+				return null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,287 @@
+package rv.httpclient;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rv.httpclient.nio.NioTransport;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Client wide settings shared by {@link HttpGet}, {@link HttpPost}
+ *           and {@link HttpRequest}. Every handler starts with the default
+ *           configuration, a different one can be set per handler.
+ *           </p>
+ *           <p>
+ *           The transport engine defaults to HttpURLConnection, setting the
+ *           system property {@code rv.httpclient.transport=nio} switches the
+ *           default to the non-blocking {@link NioTransport}, and
+ *           {@code rv.httpclient.transport=h2} to the HTTP/2
+ *           {@link Http2Transport} on Java 11 and later.
+ *           </p>
+ *
+ */
+public final class HttpClientConfig {
+
+	private static final HttpClientConfig DEFAULT = new HttpClientConfig();
+
+	private static final int DEFAULT_POOL_SIZE = 64;
+
+	private volatile Executor executor;
+
+	private volatile Transport transport;
+
+	private volatile long maxBodySize = Long.MAX_VALUE;
+
+	private volatile boolean decompression = true;
+
+	private volatile Timeouts timeouts = Timeouts.DEFAULT;
+
+	private volatile CircuitBreaker circuitBreaker;
+
+	private volatile RequestListener[] requestListeners = new RequestListener[0];
+
+	private final CompressionStats compressionStats = new CompressionStats();
+
+	/** Configuration used by handlers that were not given their own. */
+	public static HttpClientConfig getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Executor running asynchronous requests. Defaults to a bounded pool of
+	 * daemon threads. A request holds a thread while it is sent and while its
+	 * response is read. With {@link NioTransport} it lets go of it while the
+	 * server answers, with other transports it waits for the response, so the
+	 * size of the pool bounds the requests in flight.
+	 */
+	public Executor getExecutor() {
+		Executor executor = this.executor;
+		if (executor == null) {
+			synchronized (this) {
+				if (this.executor == null) {
+					this.executor = boundedPool(DEFAULT_POOL_SIZE);
+				}
+				executor = this.executor;
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Set the executor running asynchronous requests.
+	 *
+	 * @param executor
+	 *            - executor to run requests on
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Run asynchronous requests on a pool of at most the given number of
+	 * platform threads.
+	 *
+	 * @param threads
+	 *            - maximum number of concurrent requests
+	 */
+	public void useBoundedPool(int threads) {
+		setExecutor(boundedPool(threads));
+	}
+
+	/**
+	 * Run every asynchronous request on its own virtual thread.
+	 *
+	 * @return false if the running JVM does not support virtual threads, the
+	 *         executor is left unchanged in that case
+	 */
+	public boolean useVirtualThreads() {
+		final Executor executor = virtualThreads();
+		if (executor == null) {
+			return false;
+		}
+		setExecutor(executor);
+		return true;
+	}
+
+	/** Engine carrying the requests. */
+	public Transport getTransport() {
+		Transport transport = this.transport;
+		if (transport == null) {
+			synchronized (this) {
+				if (this.transport == null) {
+					this.transport = defaultTransport(System.getProperty("rv.httpclient.transport"));
+				}
+				transport = this.transport;
+			}
+		}
+		return transport;
+	}
+
+	/**
+	 * Set the engine carrying the requests, e.g.
+	 * {@link UrlConnectionTransport#INSTANCE}, {@link NioTransport#getDefault()}
+	 * or {@link Http2Transport#getDefault()}.
+	 *
+	 * @param transport
+	 *            - transport engine
+	 */
+	public void setTransport(Transport transport) {
+		this.transport = transport;
+	}
+
+	public long getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	/**
+	 * Set the maximum number of bytes of a response body buffered in memory.
+	 * Larger responses fail, use streaming mode to process them.
+	 *
+	 * @param maxBodySize
+	 *            - limit in bytes
+	 */
+	public void setMaxBodySize(long maxBodySize) {
+		this.maxBodySize = maxBodySize;
+	}
+
+	public boolean isDecompression() {
+		return decompression;
+	}
+
+	/**
+	 * Ask for gzip or deflate encoded responses and decode them while they
+	 * are read. Enabled by default.
+	 *
+	 * @param decompression
+	 *            - false to receive bodies as sent by the server
+	 */
+	public void setDecompression(boolean decompression) {
+		this.decompression = decompression;
+	}
+
+	public Timeouts getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * Set the time limits of requests, see {@link Timeouts}. Handlers can
+	 * override them per request. Defaults to {@link Timeouts#DEFAULT}.
+	 *
+	 * @param timeouts
+	 *            - time limits, null for {@link Timeouts#NONE}
+	 */
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts != null ? timeouts : Timeouts.NONE;
+	}
+
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	/**
+	 * Fail requests to hosts that keep failing at once, see
+	 * {@link CircuitBreaker}. Disabled by default.
+	 *
+	 * @param circuitBreaker
+	 *            - breaker shared by the handlers using this configuration,
+	 *            null to disable it
+	 */
+	public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Have the timings of every request attempt reported to a listener, e.g.
+	 * {@link HttpMetrics}. Requests are only timed while a listener is
+	 * registered.
+	 *
+	 * @param listener
+	 *            - listener called after each attempt
+	 */
+	public synchronized void addRequestListener(RequestListener listener) {
+		if (listener != null) {
+			final RequestListener[] listeners = Arrays.copyOf(requestListeners, requestListeners.length + 1);
+			listeners[listeners.length - 1] = listener;
+			this.requestListeners = listeners;
+		}
+	}
+
+	public synchronized void removeRequestListener(RequestListener listener) {
+		final List<RequestListener> listeners = new ArrayList<RequestListener>(Arrays.asList(requestListeners));
+		if (listeners.remove(listener)) {
+			this.requestListeners = listeners.toArray(new RequestListener[listeners.size()]);
+		}
+	}
+
+	/** Whether requests are timed. */
+	boolean hasRequestListeners() {
+		return requestListeners.length != 0;
+	}
+
+	/** Reports the timings of an attempt, a failing listener does not fail the request. */
+	void notifyRequestListeners(final RequestTimings timings) {
+		for (RequestListener listener : requestListeners) {
+			try {
+				listener.onRequest(timings);
+			} catch (RuntimeException e) {
+				// the request itself went through
+			}
+		}
+	}
+
+	/** Sizes of the compressed bodies sent and received with this configuration. */
+	public CompressionStats getCompressionStats() {
+		return compressionStats;
+	}
+
+	private static Transport defaultTransport(final String name) {
+		if ("nio".equalsIgnoreCase(name)) {
+			return NioTransport.getDefault();
+		}
+		if ("h2".equalsIgnoreCase(name) && Http2Transport.isAvailable()) {
+			return Http2Transport.getDefault();
+		}
+		return UrlConnectionTransport.INSTANCE;
+	}
+
+	/** Virtual thread per task executor, null before Java 21. */
+	static Executor virtualThreads() {
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			return null;
+		}
+	}
+
+	private static Executor boundedPool(final int threads) {
+		final AtomicInteger count = new AtomicInteger();
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						final Thread thread = new Thread(r, "httpclient-async-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+}
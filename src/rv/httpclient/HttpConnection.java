@@ -1,17 +1,21 @@
 package rv.httpclient;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.JsonObject;
 
+import rv.httpclient.util.HttpHeader;
 import rv.httpclient.util.HttpMethod;
 import rv.httpclient.util.ResponseCode;
 import rv.httpclient.util.Status;
@@ -30,14 +34,116 @@ import rv.httpclient.util.Status;
  *           Do not use this class directly to communicate with server but can
  *           be extended to add more functionality.
  *           </p>
+ *           <p>
+ *           Connections are leased from a {@link ConnectionPool}. Once the
+ *           response has been read in full, {@link #release()} hands the
+ *           connection back to the pool instead of disconnecting it. A
+ *           transport that multiplexes its own connections takes no lease.
+ *           The wire work is done by a {@link Transport}, HttpURLConnection
+ *           unless the client configuration selects another engine.
+ *           </p>
  *
  */
 public final class HttpConnection {
 
-	private HttpURLConnection conn;
+	private final ConnectionPool pool;
+
+	private final Transport transport;
+
+	private ConnectionPool.Lease lease;
+
+	private boolean reusable;
+
+	private boolean streaming;
+
+	private long maxBodySize = Long.MAX_VALUE;
+
+	private boolean decompression = true;
+
+	private long requestCompression = -1;
+
+	private CompressionStats compressionStats = HttpClientConfig.getDefault().getCompressionStats();
+
+	private Timeouts timeouts = HttpClientConfig.getDefault().getTimeouts();
+
+	private RequestTimings timings;
+
+	private boolean contentType;
+
+	private volatile boolean aborted;
+
+	private volatile Exchange exchange;
 
 	public HttpConnection() {
+		this(ConnectionPool.getDefault());
+	}
+
+	public HttpConnection(final ConnectionPool pool) {
+		this(pool, HttpClientConfig.getDefault().getTransport());
+	}
+
+	public HttpConnection(final ConnectionPool pool, final Transport transport) {
+		this.pool = pool;
+		this.transport = transport;
+	}
+
+	/***
+	 * Set the maximum number of bytes of a response body read into memory.
+	 * Larger bodies fail the request, streaming responses are not limited.
+	 * 
+	 * @param maxBodySize
+	 *            - limit in bytes
+	 */
+	public void setMaxBodySize(long maxBodySize) {
+		this.maxBodySize = maxBodySize;
+	}
+
+	/***
+	 * Ask for gzip or deflate encoded responses and decode them while the
+	 * body is read. Enabled by default, must be set before opening.
+	 * 
+	 * @param decompression
+	 *            - false to receive bodies as sent by the server
+	 */
+	public void setDecompression(boolean decompression) {
+		this.decompression = decompression;
+	}
+
+	/***
+	 * Send request bodies of at least the given size gzip encoded. Bodies of
+	 * unknown size are always compressed.
+	 * 
+	 * @param minSize
+	 *            - threshold in bytes, -1 to never compress
+	 */
+	public void setRequestCompression(long minSize) {
+		this.requestCompression = minSize;
+	}
+
+	/***
+	 * Set the counters compressed body sizes are recorded in.
+	 * 
+	 * @param compressionStats
+	 *            - counters, usually those of the client configuration
+	 */
+	public void setCompressionStats(CompressionStats compressionStats) {
+		this.compressionStats = compressionStats;
+	}
+
+	/***
+	 * Set the connect and read timeouts, must be set before opening. The
+	 * request timeout is enforced by the caller.
+	 * 
+	 * @param timeouts
+	 *            - time limits
+	 */
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+	}
 
+	/** Records when the request was sent and the response arrived, null to not time it. */
+	void setTimings(RequestTimings timings) {
+		this.timings = timings;
 	}
 
 	/***
@@ -50,20 +156,53 @@ public final class HttpConnection {
 	 * @throws HttpClientException
 	 */
 	public void open(final String url, final HttpMethod httpMethod) throws HttpClientException {
+		open(parse(url), httpMethod);
+	}
+
+	static URL parse(final String url) throws HttpClientException {
 		try {
-			conn = (HttpURLConnection) new URL(url).openConnection();
-			conn.setDoInput(true);
-			conn.setDoOutput(true);
-			conn.setRequestMethod(httpMethod == null ? HttpMethod.GET.toString() : httpMethod.toString());
+			return new URL(url);
 		} catch (MalformedURLException e) {
 			throw new HttpClientException();
+		}
+	}
+
+	/***
+	 * Opens the connection for an already parsed URL.
+	 * 
+	 * @param target
+	 *            - url of open a connection
+	 * @param httpMethod
+	 *            - http method to use for communication
+	 * @throws HttpClientException
+	 */
+	public void open(final URL target, final HttpMethod httpMethod) throws HttpClientException {
+		try {
+			if (transport.isMultiplexed()) {
+				exchange = transport.open(target, httpMethod, null);
+			} else {
+				lease = pool.lease(ConnectionPool.Route.of(target));
+				exchange = transport.open(target, httpMethod, lease.getConnection());
+			}
+			exchange.setTimeouts(timeouts.getConnectTimeout(), timeouts.getReadTimeout());
+			if (decompression) {
+				exchange.setRequestHeader("Accept-Encoding", ContentCoding.ACCEPT_ENCODING);
+			}
+			if (aborted) {
+				close();
+				throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "HttpRequest was aborted.");
+			}
 		} catch (IOException e) {
-			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to create HttpURLConnection.", e);
+			close();
+			throw failure("Failed to open connection.", e);
 		}
 	}
 
 	/***
-	 * Construct HTTP URL appended with query parameters.
+	 * Construct HTTP URL appended with query parameters. Keys and values are
+	 * form encoded, escapes and {@code +} already in them are kept so that
+	 * parameters encoded by the caller are not encoded twice. Use
+	 * {@link QueryParams} for strict encoding and repeated names.
 	 * 
 	 * @param url
 	 *            - url of open a connection
@@ -74,32 +213,14 @@ public final class HttpConnection {
 	 */
 	public String constructGetURLWithQueryParams(String url, Map<String, String> queryParams)
 			throws HttpClientException {
-		final StringBuilder getURL = new StringBuilder(url);
-		boolean flag = Boolean.FALSE;
-		if (queryParams != null && !queryParams.isEmpty()) {
-			getURL.append("?");
-			final Iterator<Entry<String, String>> it = queryParams.entrySet().iterator();
-			while (it.hasNext()) {
-				final Entry<String, String> entry = it.next();
-				try {
-					final String key = entry.getKey() != null ? entry.getKey() : null;
-					if (key != null) {
-						final String value = entry.getValue();
-						if (flag == Boolean.FALSE) {
-							flag = Boolean.TRUE;
-						} else {
-							getURL.append("&");
-						}
-						getURL.append(key).append("=").append(value);
-					}
-				} catch (IllegalStateException e) {
-					throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Query Parameter has a problem.", e);
-				} catch (NullPointerException e) {
-					throw new HttpClientException(ResponseCode.VALIDATION_ERROR, "Query Parameter has a null key.", e);
-				}
-			}
+		return withQueryParams(url, queryParams);
+	}
+
+	static String withQueryParams(String url, Map<String, String> queryParams) throws HttpClientException {
+		if (url == null) {
+			throw new HttpClientException(ResponseCode.VALIDATION_ERROR, "URL is null.");
 		}
-		return getURL.toString();
+		return QueryParams.appendLenient(url, queryParams);
 	}
 
 	/***
@@ -117,7 +238,8 @@ public final class HttpConnection {
 				try {
 					final String key = entry.getKey() != null ? entry.getKey() : null;
 					if (key != null) {
-						conn.setRequestProperty(key, entry.getValue());
+						exchange.setRequestHeader(key, entry.getValue());
+						contentType |= HttpHeader.CONTENT_TYPE.get().equalsIgnoreCase(key);
 					}
 				} catch (IllegalStateException e) {
 					throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Request Header has a problem.", e);
@@ -128,6 +250,19 @@ public final class HttpConnection {
 		}
 	}
 
+	/***
+	 * Adds a prepared block of HTTP Headers to an open connection.
+	 * 
+	 * @param headers
+	 *            - http headers to add
+	 */
+	public void addHeaders(final HeaderBlock headers) {
+		if (headers != null && headers.size() > 0) {
+			exchange.setRequestHeaders(headers);
+			contentType |= headers.contains(HttpHeader.CONTENT_TYPE.get());
+		}
+	}
+
 	/***
 	 * Executes the operation.
 	 * 
@@ -135,10 +270,30 @@ public final class HttpConnection {
 	 * @throws HttpClientException
 	 */
 	public HttpResponse execute() throws HttpClientException {
+		return execute(false);
+	}
+
+	/***
+	 * Executes the operation.
+	 * 
+	 * @param streaming
+	 *            - hand the live body stream to the response instead of
+	 *            buffering it. The connection is then released when the
+	 *            response is closed.
+	 * @return httpResponse
+	 * @throws HttpClientException
+	 */
+	public HttpResponse execute(final boolean streaming) throws HttpClientException {
 		try {
-			final int responseCode = conn.getResponseCode();
-			final String responseMessage = conn.getResponseMessage();
-			final Map<String, List<String>> headers = conn.getHeaderFields();
+			if (timings != null) {
+				timings.sent();
+			}
+			final int responseCode = exchange.getResponseCode();
+			if (timings != null) {
+				timings.head(exchange);
+			}
+			final String responseMessage = exchange.getResponseMessage();
+			final ResponseHeaders headers = ResponseHeaders.of(exchange.getResponseHeaders());
 
 			final HttpResponse httpResponse = new HttpResponse();
 			httpResponse.setResponseCode(responseCode);
@@ -147,25 +302,182 @@ public final class HttpConnection {
 			final HttpAck ack = httpResponse.getHttpAck();
 
 			if (responseCode == HttpURLConnection.HTTP_OK) {
-				httpResponse.setResponseDate(conn.getInputStream());
+				final InputStream stream = exchange.getResponseBody();
+				if (streaming && stream != null) {
+					httpResponse.setBodyStream(decode(headers, new ResponseStream(stream)));
+					this.streaming = true;
+				} else if (stream != null) {
+					try {
+						final InputStream body = decode(headers, stream);
+						// presized from Content-Length unless that is the size before decoding
+						httpResponse.setResponseDate(body, maxBodySize, body == stream ? headers.getContentLength() : -1);
+					} finally {
+						stream.close();
+					}
+					if (timings != null) {
+						timings.received();
+					}
+				}
 				ack.setStatus(Status.SUCCESS);
 			} else {
+				drain(exchange.getResponseBody());
 				ack.setStatus(Status.FAILURE);
 				ack.setErrorType(ResponseCode.RUNTIME_ERROR);
 				ack.setErrorCode(responseCode);
 				ack.setErrorMessage(responseMessage);
 			}
+			reusable = true;
 			return httpResponse;
 		} catch (IOException e) {
-			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to execute HttpRequest.", e);
+			throw failure("Failed to execute HttpRequest.", e);
+		}
+	}
+
+	/***
+	 * Sends the request without waiting for the response, see
+	 * {@link Exchange#sendAsync(long)}. A buffered response is received up to
+	 * one byte past the body limit, {@link #execute(boolean)} then reads it
+	 * without waiting on the network.
+	 * 
+	 * @param streaming
+	 *            - the response is read with {@link #execute(boolean)} in
+	 *            streaming mode, only its head is waited for
+	 * @return future completed once the response can be read, null if the
+	 *         transport can only be waited on in {@link #execute(boolean)}
+	 */
+	CompletableFuture<Void> sendAsync(final boolean streaming) {
+		if (timings != null) {
+			timings.sent();
+		}
+		return exchange.sendAsync(streaming ? 0 : maxBodySize == Long.MAX_VALUE ? maxBodySize : maxBodySize + 1);
+	}
+
+	/***
+	 * Returns the connection to the pool if the response was read in full,
+	 * otherwise closes it. A streaming response keeps the connection until it
+	 * is closed.
+	 */
+	public void release() {
+		if (lease == null && transport.isMultiplexed() && !streaming) {
+			close();
+		} else if (lease != null && !streaming) {
+			synchronized (this) {
+				if (reusable && !aborted) {
+					pool.release(lease, exchange.detach());
+					lease = null;
+					// a late abort must not close the pooled connection
+					exchange = null;
+					return;
+				}
+			}
+			close();
 		}
 	}
 
 	/***
-	 * Close HttpURLConnection previously opened.
+	 * Aborts the request from another thread. A blocked read or write fails
+	 * and the connection is not reused.
+	 */
+	public void abort() {
+		final Exchange exchange;
+		synchronized (this) {
+			aborted = true;
+			exchange = this.exchange;
+		}
+		if (exchange != null) {
+			exchange.close();
+		}
+	}
+
+	/** Whether {@link #abort()} was called. */
+	boolean isAborted() {
+		return aborted;
+	}
+
+	/***
+	 * Close the connection previously opened.
 	 */
 	public void close() {
-		conn.disconnect();
+		if (exchange != null) {
+			exchange.close();
+		}
+		if (lease != null) {
+			pool.release(lease, null);
+			lease = null;
+		}
+	}
+
+	/**
+	 * Live body of a streaming response, gives the connection back once
+	 * closed.
+	 */
+	private final class ResponseStream extends FilterInputStream {
+
+		private boolean eof;
+
+		private boolean closed;
+
+		private ResponseStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			eof |= b == -1;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int n = super.read(b, off, len);
+			eof |= n == -1;
+			return n;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				super.close();
+			} finally {
+				reusable = eof;
+				streaming = false;
+				release();
+			}
+		}
+	}
+
+	private InputStream decode(final ResponseHeaders headers, final InputStream stream)
+			throws IOException {
+		return decompression ? ContentCoding.decode(headers, stream, compressionStats) : stream;
+	}
+
+	/** Timeouts are told apart from other failures by their code. */
+	private static HttpClientException failure(final String message, final IOException e) {
+		if (e instanceof SocketTimeoutException) {
+			return new HttpClientException(ResponseCode.TIMEOUT, message + " " + e.getMessage(), e);
+		}
+		return new HttpClientException(ResponseCode.RUNTIME_ERROR, message, e);
+	}
+
+	/**
+	 * Reads an unconsumed body to the end so that the socket can be reused.
+	 */
+	private static void drain(final InputStream stream) throws IOException {
+		if (stream != null) {
+			try {
+				final byte[] buffer = new byte[4096];
+				while (stream.read(buffer) != -1) {
+					// discard
+				}
+			} finally {
+				stream.close();
+			}
+		}
 	}
 
 	/**
@@ -177,14 +489,7 @@ public final class HttpConnection {
 	 */
 	public void addBody(final String request) throws HttpClientException {
 		if (request != null && !request.isEmpty()) {
-			try {
-				final OutputStream os = conn.getOutputStream();
-				os.write(request.getBytes());
-				os.flush();
-			} catch (IOException e) {
-				throw new HttpClientException(ResponseCode.RUNTIME_ERROR,
-						"Failed to create output stream for writing request parameters.", e);
-			}
+			addBody(RequestBody.of(request));
 		}
 	}
 
@@ -209,8 +514,46 @@ public final class HttpConnection {
 	 * @throws HttpClientException
 	 */
 	public void addBody(byte[] request) throws HttpClientException {
+		if (request != null && request.length > 0) {
+			addBody(RequestBody.of(request));
+		}
+	}
+
+	/***
+	 * Writes the request body to the connection as it is produced, with a
+	 * fixed Content-Length when the size is known and chunked otherwise.
+	 * Compressed bodies are always sent chunked.
+	 * 
+	 * @param request
+	 *            - request data
+	 * @throws HttpClientException
+	 */
+	public void addBody(final RequestBody request) throws HttpClientException {
 		if (request != null) {
-			addBody(new String(request));
+			RequestBody body = request;
+			// a multipart body only parses with its own boundary, whatever the request said
+			if (request.contentType() != null && (!contentType || request instanceof MultipartBody)) {
+				exchange.setRequestHeader("Content-Type", request.contentType());
+			}
+			if (requestCompression >= 0
+					&& (request.contentLength() < 0 || request.contentLength() >= requestCompression)) {
+				exchange.setRequestHeader("Content-Encoding", ContentCoding.GZIP);
+				body = ContentCoding.gzip(request, compressionStats);
+			}
+			try {
+				exchange.setContentLength(body.contentLength());
+				final OutputStream os = exchange.getRequestBody();
+				try {
+					body.writeTo(os);
+				} finally {
+					os.close();
+				}
+				if (timings != null) {
+					timings.sent();
+				}
+			} catch (IOException e) {
+				throw failure("Failed to write request body.", e);
+			}
 		}
 	}
 
@@ -2,8 +2,11 @@ package rv.httpclient;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+import rv.httpclient.util.ValidationResult;
 import rv.httpclient.util.Validator;
 import rv.httpclient.util.Validator.Key;
 
@@ -17,13 +20,101 @@ import rv.httpclient.util.Validator.Key;
  *           A handler for processing HTTP GET request by encapsulating HTTP
  *           connection to remote server.
  *           </p>
+ *           <p>
+ *           Executing a request does not modify the handler, a configured
+ *           instance can be shared between threads.
+ *           </p>
  *
  */
 public final class HttpGet {
 
-	private String url;
 	private Map<String, String> headers;
 	private Map<String, String> queryParams;
+	private HttpClientConfig config = HttpClientConfig.getDefault();
+	private boolean streaming;
+	private RetryPolicy retryPolicy;
+	private Timeouts timeouts;
+	private HedgePolicy hedgePolicy;
+	private HttpCache cache;
+	private RequestCoalescer coalescer;
+
+	/**
+	 * Set the client configuration used by this handler.
+	 * 
+	 * @param config
+	 *            - configuration to use instead of the default one.
+	 */
+	public void setConfig(HttpClientConfig config) {
+		this.config = config != null ? config : HttpClientConfig.getDefault();
+	}
+
+	/**
+	 * Hand the response body over as a live stream instead of reading it
+	 * into memory. The returned {@link HttpResponse} must then be closed.
+	 * 
+	 * @param streaming
+	 *            - true to stream the response body
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set the time limits of the requests of this handler, see
+	 * {@link Timeouts}.
+	 * 
+	 * @param timeouts
+	 *            - time limits, null for those of the client configuration
+	 */
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	/**
+	 * Retry failed requests as the given policy allows, see
+	 * {@link RetryPolicy}. Requests are not retried by default.
+	 * 
+	 * @param retryPolicy
+	 *            - policy to use, null to disable retries
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Send the request a second time when the first attempt is slow and use
+	 * whichever response arrives first, see {@link HedgePolicy}. Requests are
+	 * not hedged by default.
+	 * 
+	 * @param hedgePolicy
+	 *            - policy to use, null to disable hedging
+	 */
+	public void setHedgePolicy(HedgePolicy hedgePolicy) {
+		this.hedgePolicy = hedgePolicy;
+	}
+
+	/**
+	 * Serve responses from the given cache where HTTP caching rules allow,
+	 * see {@link HttpCache}. Streaming requests always go to the network.
+	 * 
+	 * @param cache
+	 *            - cache to use, null to disable caching
+	 */
+	public void setCache(HttpCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Share one network call among identical requests in flight at the same
+	 * time, see {@link RequestCoalescer}. Streaming requests are never
+	 * shared.
+	 * 
+	 * @param coalescer
+	 *            - coalescer to use, null to disable coalescing
+	 */
+	public void setCoalescer(RequestCoalescer coalescer) {
+		this.coalescer = coalescer;
+	}
 
 	/**
 	 * Set the HTTP Headers.
@@ -79,18 +170,47 @@ public final class HttpGet {
 		}
 	}
 	
-	private HttpResponse execute() throws HttpClientException {
-		final HttpConnection conn = new HttpConnection();
-		try {
-			if(this.queryParams != null) {
-				this.url = conn.constructGetURLWithQueryParams(this.url, this.queryParams);
-			}
-			conn.open(this.url, HttpMethod.GET);
-			conn.addHeaders(this.headers);
-			return conn.execute();
-		} finally {
-			conn.close();
+	/**
+	 * Compile the settings of this handler into an immutable request for the
+	 * given URL. Query Parameters and Headers are copied, later changes to the
+	 * handler do not affect the prepared request. The URL and the query
+	 * parameter values may contain {@code {name}} variables resolved on each
+	 * call.
+	 * 
+	 * @param url
+	 *            - HTTP URL template to call
+	 * @return PreparedRequest - request to execute any number of times
+	 * @throws HttpClientException
+	 *             if the URL is empty or malformed
+	 */
+	public PreparedRequest prepare(String url) throws HttpClientException {
+		final ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		if (result.isError()) {
+			throw new HttpClientException(ResponseCode.VALIDATION_ERROR, result.getMessage());
 		}
+		return new PreparedRequest(HttpMethod.GET, url, this.queryParams, this.headers, null, this.config, this.streaming,
+				-1, this.retryPolicy, this.hedgePolicy, this.timeouts);
+	}
+
+	private HttpCall newCall(String url, Map<String, String> queryParams, Map<String, String> headers) {
+		return new HttpCall(HttpMethod.GET, url, queryParams, headers, null, this.config)
+				.setStreaming(this.streaming)
+				.setTimeouts(this.timeouts)
+				.setRetryPolicy(this.retryPolicy)
+				.setHedgePolicy(this.hedgePolicy);
+	}
+
+	/** Network call for a URL with its query string, coalesced if enabled. */
+	private Fetch fetch(final String target) {
+		final Fetch network = h -> newCall(target, null, h).execute();
+		final RequestCoalescer coalescer = this.coalescer;
+		return coalescer != null ? h -> coalescer.execute(HttpMethod.GET, target, h, network) : network;
+	}
+
+	private ValidationResult validate(String url, Map<String, String> queryParams, Map<String, String> headers) {
+		ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		result = Validator.validateQueryParam(result, Key.QUERY_PARAM, queryParams);
+		return Validator.validateHeaders(result, Key.HEADERS, headers);
 	}
 
 	/**
@@ -107,16 +227,17 @@ public final class HttpGet {
 	 */
 	public HttpResponse execute(String url, Map<String, String> queryParams, Map<String, String> headers)
 			throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		Validator.validateQueryParam(Key.QUERY_PARAM, queryParams);
-		Validator.validateHeaders(Key.HEADERS, headers);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = validate(url, queryParams, headers);
+		if (result.isError()) {
+			return result.getErrors();
 		}
-		this.url = url;
-		this.queryParams = queryParams;
-		this.headers = headers;
-		return execute();
+		if ((this.cache != null || this.coalescer != null) && !this.streaming) {
+			final String target = HttpConnection.withQueryParams(url, queryParams);
+			final Fetch fetch = fetch(target);
+			return this.cache != null ? this.cache.execute(target, headers, fetch, config.getExecutor())
+					: fetch.fetch(headers);
+		}
+		return newCall(url, queryParams, headers).execute();
 	}
 
 	/**
@@ -132,4 +253,54 @@ public final class HttpGet {
 		return execute(url, this.queryParams, this.headers);
 	}
 
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller. The
+	 * request runs on the executor of the client configuration, cancelling
+	 * the returned future aborts the connection.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param queryParams
+	 *            - query parameters to append to HTTP URL
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, Map<String, String> queryParams,
+			Map<String, String> headers) {
+		final ValidationResult result = validate(url, queryParams, headers);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		if ((this.cache != null || this.coalescer != null) && !this.streaming) {
+			final String target;
+			try {
+				target = HttpConnection.withQueryParams(url, queryParams);
+			} catch (HttpClientException e) {
+				final CompletableFuture<HttpResponse> future = new CompletableFuture<HttpResponse>();
+				future.completeExceptionally(e);
+				return future;
+			}
+			if (this.cache != null) {
+				return this.cache.executeAsync(target, headers, fetch(target), config.getExecutor());
+			}
+			return this.coalescer.executeAsync(HttpMethod.GET, target, headers,
+					() -> newCall(target, null, headers).executeAsync());
+		}
+		return newCall(url, queryParams, headers).executeAsync();
+	}
+
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller. Use
+	 * this method when Query Parameters and Headers are set individually in
+	 * respective setters.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url) {
+		return executeAsync(url, this.queryParams, this.headers);
+	}
+
 }
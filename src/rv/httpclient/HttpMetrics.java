@@ -0,0 +1,137 @@
+package rv.httpclient;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Latency histograms of every {@link RequestPhase} per host and
+ *           method. Register it with
+ *           {@link HttpClientConfig#addRequestListener(RequestListener)}; keys
+ *           look like {@code GET https://example.com:443}. Failed attempts are
+ *           counted and their phases recorded as far as they got.
+ *           </p>
+ *
+ */
+public final class HttpMetrics implements RequestListener {
+
+	private static final RequestPhase[] PHASES = RequestPhase.values();
+
+	private final ConcurrentHashMap<String, Histograms> histograms = new ConcurrentHashMap<String, Histograms>();
+
+	@Override
+	public void onRequest(final RequestTimings timings) {
+		final String key = key(timings.getHttpMethod(), timings.getHost());
+		Histograms entry = histograms.get(key);
+		if (entry == null) {
+			final Histograms created = new Histograms();
+			entry = histograms.putIfAbsent(key, created);
+			if (entry == null) {
+				entry = created;
+			}
+		}
+		for (RequestPhase phase : PHASES) {
+			entry.phases[phase.ordinal()].record(timings.getNanos(phase));
+		}
+		if (timings.getException() != null) {
+			entry.failures.increment();
+		}
+	}
+
+	/***
+	 * Histogram of one phase of the requests to a host.
+	 *
+	 * @param httpMethod
+	 *            - method of the requests
+	 * @param host
+	 *            - scheme, host and port, e.g. {@code http://localhost:8080}
+	 * @param phase
+	 *            - timed phase
+	 * @return histogram, null if no such request was made
+	 */
+	public LatencyHistogram getHistogram(final HttpMethod httpMethod, final String host, final RequestPhase phase) {
+		final Histograms entry = histograms.get(key(httpMethod, host));
+		return entry != null ? entry.phases[phase.ordinal()] : null;
+	}
+
+	/** Number of failed attempts to a host, 0 if none were made. */
+	public long getFailures(final HttpMethod httpMethod, final String host) {
+		final Histograms entry = histograms.get(key(httpMethod, host));
+		return entry != null ? entry.failures.sum() : 0;
+	}
+
+	/** Histograms of every host and method, sorted by key. */
+	public Map<String, Map<RequestPhase, LatencyHistogram.Snapshot>> snapshot() {
+		return snapshot(false);
+	}
+
+	/** Histograms of every host and method, which are cleared. */
+	public Map<String, Map<RequestPhase, LatencyHistogram.Snapshot>> snapshotAndReset() {
+		return snapshot(true);
+	}
+
+	/** Clears the histograms and forgets the hosts. */
+	public void reset() {
+		histograms.clear();
+	}
+
+	private Map<String, Map<RequestPhase, LatencyHistogram.Snapshot>> snapshot(final boolean reset) {
+		final Map<String, Map<RequestPhase, LatencyHistogram.Snapshot>> result = new TreeMap<String, Map<RequestPhase, LatencyHistogram.Snapshot>>();
+		histograms.forEach((key, entry) -> {
+			final Map<RequestPhase, LatencyHistogram.Snapshot> phases = new EnumMap<RequestPhase, LatencyHistogram.Snapshot>(
+					RequestPhase.class);
+			for (RequestPhase phase : PHASES) {
+				final LatencyHistogram histogram = entry.phases[phase.ordinal()];
+				final LatencyHistogram.Snapshot snapshot = reset ? histogram.snapshotAndReset() : histogram.snapshot();
+				if (snapshot.getCount() > 0) {
+					phases.put(phase, snapshot);
+				}
+			}
+			if (reset) {
+				entry.failures.reset();
+			}
+			result.put(key, Collections.unmodifiableMap(phases));
+		});
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Map<RequestPhase, LatencyHistogram.Snapshot>>(result));
+	}
+
+	private static String key(final HttpMethod httpMethod, final String host) {
+		return (httpMethod == null ? HttpMethod.GET : httpMethod) + " " + host;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("HttpMetrics [");
+		snapshot().forEach((key, phases) -> {
+			sb.append("\n  ").append(key);
+			phases.forEach((phase, snapshot) -> sb.append("\n    ").append(phase).append(": ").append(snapshot));
+		});
+		return sb.append(']').toString();
+	}
+
+	private static final class Histograms {
+
+		private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+		private final LongAdder failures = new LongAdder();
+
+		private Histograms() {
+			for (int i = 0; i < phases.length; i++) {
+				phases[i] = new LatencyHistogram();
+			}
+		}
+	}
+
+}
@@ -2,10 +2,13 @@ package rv.httpclient;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.JsonObject;
 
 import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+import rv.httpclient.util.ValidationResult;
 import rv.httpclient.util.Validator;
 import rv.httpclient.util.Validator.Key;
 
@@ -19,14 +22,77 @@ import rv.httpclient.util.Validator.Key;
  *           A handler for processing HTTP POST request by encapsulating HTTP
  *           connection to remote server.
  *           </p>
+ *           <p>
+ *           Executing a request does not modify the handler, a configured
+ *           instance can be shared between threads.
+ *           </p>
  *
  */
 public final class HttpPost {
 
-	private String url;
 	private Map<String, String> headers;
 	private Map<String, String> queryParams;
-	private String requestBody;
+	private RequestBody requestBody;
+	private HttpClientConfig config = HttpClientConfig.getDefault();
+	private boolean streaming;
+	private long requestCompression = -1;
+	private RetryPolicy retryPolicy;
+	private Timeouts timeouts;
+
+	/**
+	 * Set the client configuration used by this handler.
+	 * 
+	 * @param config
+	 *            - configuration to use instead of the default one.
+	 */
+	public void setConfig(HttpClientConfig config) {
+		this.config = config != null ? config : HttpClientConfig.getDefault();
+	}
+
+	/**
+	 * Hand the response body over as a live stream instead of reading it
+	 * into memory. The returned {@link HttpResponse} must then be closed.
+	 * 
+	 * @param streaming
+	 *            - true to stream the response body
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set the time limits of the requests of this handler, see
+	 * {@link Timeouts}.
+	 * 
+	 * @param timeouts
+	 *            - time limits, null for those of the client configuration
+	 */
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	/**
+	 * Retry failed requests as the given policy allows, see
+	 * {@link RetryPolicy}. Requests are not retried by default.
+	 * 
+	 * @param retryPolicy
+	 *            - policy to use, null to disable retries
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Send the request body gzip encoded when it is at least the given size.
+	 * Bodies of unknown size are always compressed. The server must accept
+	 * a gzip Content-Encoding.
+	 * 
+	 * @param minSize
+	 *            - threshold in bytes, -1 to never compress (default)
+	 */
+	public void setRequestCompression(long minSize) {
+		this.requestCompression = minSize;
+	}
 
 	/**
 	 * Set the HTTP Headers.
@@ -89,7 +155,7 @@ public final class HttpPost {
 	 *            - parameters to pass in HTTP request.
 	 */
 	public void setBody(String requestBody) {
-		this.requestBody = requestBody;
+		this.requestBody = requestBody != null && !requestBody.isEmpty() ? RequestBody.of(requestBody) : null;
 	}
 
 	/**
@@ -100,7 +166,7 @@ public final class HttpPost {
 	 */
 	public void setBody(byte[] requestBody) {
 		if (requestBody != null && requestBody.length > 0) {
-			this.requestBody = new String(requestBody);
+			this.requestBody = RequestBody.of(requestBody);
 		}
 	}
 
@@ -112,23 +178,56 @@ public final class HttpPost {
 	 */
 	public void setBody(JsonObject requestBody) {
 		if (requestBody != null && !requestBody.isJsonNull()) {
-			this.requestBody = requestBody.toString();
+			this.requestBody = RequestBody.of(requestBody.toString());
 		}
 	}
+
+	/**
+	 * Set the request body source. Bytes, buffers, files, streams and
+	 * writer callbacks are sent as they are produced, see
+	 * {@link RequestBody}.
+	 * 
+	 * @param requestBody
+	 *            - body to send in HTTP request.
+	 */
+	public void setBody(RequestBody requestBody) {
+		this.requestBody = requestBody;
+	}
 	
-	private HttpResponse execute() throws HttpClientException {
-		final HttpConnection conn = new HttpConnection();
-		try {
-			if(this.queryParams != null) {
-				this.url = conn.constructGetURLWithQueryParams(this.url, this.queryParams);
-			}
-			conn.open(this.url, HttpMethod.POST);
-			conn.addHeaders(this.headers);
-			conn.addBody(this.requestBody);
-			return conn.execute();
-		} finally {
-			conn.close();
+	/**
+	 * Compile the settings of this handler into an immutable request for the
+	 * given URL. Request Data, Query Parameters and Headers are copied, later
+	 * changes to the handler do not affect the prepared request. The URL and
+	 * the query parameter values may contain {@code {name}} variables
+	 * resolved on each call.
+	 * 
+	 * @param url
+	 *            - HTTP URL template to call
+	 * @return PreparedRequest - request to execute any number of times
+	 * @throws HttpClientException
+	 *             if the URL is empty or malformed
+	 */
+	public PreparedRequest prepare(String url) throws HttpClientException {
+		final ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		if (result.isError()) {
+			throw new HttpClientException(ResponseCode.VALIDATION_ERROR, result.getMessage());
 		}
+		return new PreparedRequest(HttpMethod.POST, url, this.queryParams, this.headers, this.requestBody, this.config,
+				this.streaming, this.requestCompression, this.retryPolicy, null, this.timeouts);
+	}
+
+	private HttpCall newCall(String url, Map<String, String> headers, RequestBody requestBody) {
+		return new HttpCall(HttpMethod.POST, url, this.queryParams, headers, requestBody, this.config)
+				.setStreaming(this.streaming)
+				.setRequestCompression(this.requestCompression)
+				.setTimeouts(this.timeouts)
+				.setRetryPolicy(this.retryPolicy);
+	}
+
+	private ValidationResult validate(String url, Map<String, String> headers) {
+		ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		result = Validator.validateHeaders(result, Key.HEADERS, headers);
+		return Validator.validateQueryParam(result, Key.QUERY_PARAM, this.queryParams);
 	}
 
 	/**
@@ -146,17 +245,12 @@ public final class HttpPost {
 	 */
 	public HttpResponse execute(String url, Map<String, String> headers, String requestBody)
 			throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		Validator.validateHeaders(Key.HEADERS, headers);
-		Validator.validateParam(Key.REQUEST_BODY, requestBody);
-		Validator.validateQueryParam(Key.QUERY_PARAM, this.queryParams);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return result.getErrors();
 		}
-		this.url = url;
-		this.headers = headers;
-		this.requestBody = requestBody;
-		return execute();
+		return newCall(url, headers, RequestBody.of(requestBody)).execute();
 	}
 
 	/**
@@ -173,17 +267,34 @@ public final class HttpPost {
 	 */
 	public HttpResponse execute(String url, Map<String, String> headers, JsonObject requestBody)
 			throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		Validator.validateHeaders(Key.HEADERS, headers);
-		Validator.validateParam(Key.REQUEST_BODY, requestBody);
-		Validator.validateQueryParam(Key.QUERY_PARAM, this.queryParams);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return result.getErrors();
 		}
-		this.url = url;
-		this.headers = headers;
-		this.requestBody = requestBody.toString();
-		return execute();
+		return newCall(url, headers, RequestBody.of(requestBody.toString())).execute();
+	}
+
+	/**
+	 * Execute intended operation on HTTP URL.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - body streamed to the server along the request
+	 * @return RestResponse - response returned by server
+	 * @throws HttpClientException
+	 */
+	public HttpResponse execute(String url, Map<String, String> headers, RequestBody requestBody)
+			throws HttpClientException {
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return result.getErrors();
+		}
+		return newCall(url, headers, requestBody).execute();
 	}
 
 	/**
@@ -200,4 +311,83 @@ public final class HttpPost {
 		return execute(url, this.headers, this.requestBody);
 	}
 
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller. The
+	 * request runs on the executor of the client configuration, cancelling
+	 * the returned future aborts the connection.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - string based json/xml/url-encoded parameters to send along
+	 *            the request.
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, Map<String, String> headers,
+			String requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, headers, RequestBody.of(requestBody)).executeAsync();
+	}
+
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - JSON format parameters to send along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, Map<String, String> headers,
+			JsonObject requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, headers, RequestBody.of(requestBody.toString())).executeAsync();
+	}
+
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - body streamed to the server along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, Map<String, String> headers,
+			RequestBody requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, headers), Key.REQUEST_BODY,
+				requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, headers, requestBody).executeAsync();
+	}
+
+	/**
+	 * Execute intended operation on HTTP URL without blocking the caller. Use
+	 * this method when Request Data, Query Parameters and Headers are set
+	 * individually in respective setters.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url) {
+		return executeAsync(url, this.headers, this.requestBody);
+	}
+
 }
@@ -2,10 +2,13 @@ package rv.httpclient;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.JsonObject;
 
 import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+import rv.httpclient.util.ValidationResult;
 import rv.httpclient.util.Validator;
 import rv.httpclient.util.Validator.Key;
 
@@ -19,16 +22,92 @@ import rv.httpclient.util.Validator.Key;
  *           A handler for processing HTTP requests by encapsulating background
  *           stuff.
  *           </p>
+ *           <p>
+ *           Executing a request does not modify the handler, a configured
+ *           instance can be shared between threads.
+ *           </p>
  *
  */
 public final class HttpRequest {
 
-	private String url;
 	private HttpMethod httpMethod;
 	/*private Map<HttpHeader, String> headers;*/
 	private Map<String, String> headers;	
 	private Map<String, String> queryParams;
-	private String requestBody;
+	private RequestBody requestBody;
+	private HttpClientConfig config = HttpClientConfig.getDefault();
+	private boolean streaming;
+	private long requestCompression = -1;
+	private RetryPolicy retryPolicy;
+	private Timeouts timeouts;
+	private HedgePolicy hedgePolicy;
+
+	/**
+	 * Set the client configuration used by this handler.
+	 * 
+	 * @param config
+	 *            - configuration to use instead of the default one.
+	 */
+	public void setConfig(HttpClientConfig config) {
+		this.config = config != null ? config : HttpClientConfig.getDefault();
+	}
+
+	/**
+	 * Hand the response body over as a live stream instead of reading it
+	 * into memory. The returned {@link HttpResponse} must then be closed.
+	 * 
+	 * @param streaming
+	 *            - true to stream the response body
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set the time limits of the requests of this handler, see
+	 * {@link Timeouts}.
+	 * 
+	 * @param timeouts
+	 *            - time limits, null for those of the client configuration
+	 */
+	public void setTimeouts(Timeouts timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	/**
+	 * Retry failed requests as the given policy allows, see
+	 * {@link RetryPolicy}. Requests are not retried by default.
+	 * 
+	 * @param retryPolicy
+	 *            - policy to use, null to disable retries
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Send the request a second time when the first attempt is slow and use
+	 * whichever response arrives first, see {@link HedgePolicy}. POST requests
+	 * are never hedged, others are not hedged by default.
+	 * 
+	 * @param hedgePolicy
+	 *            - policy to use, null to disable hedging
+	 */
+	public void setHedgePolicy(HedgePolicy hedgePolicy) {
+		this.hedgePolicy = hedgePolicy;
+	}
+
+	/**
+	 * Send the request body gzip encoded when it is at least the given size.
+	 * Bodies of unknown size are always compressed. The server must accept
+	 * a gzip Content-Encoding.
+	 * 
+	 * @param minSize
+	 *            - threshold in bytes, -1 to never compress (default)
+	 */
+	public void setRequestCompression(long minSize) {
+		this.requestCompression = minSize;
+	}
 
 	/**
 	 * Set the HTTP method for the URL request. It can be one of the
@@ -112,7 +191,7 @@ public final class HttpRequest {
 	 *            - parameters to pass in HTTP request.
 	 */
 	public void setBody(String requestBody) {
-		this.requestBody = requestBody;
+		this.requestBody = requestBody != null && !requestBody.isEmpty() ? RequestBody.of(requestBody) : null;
 	}
 
 	/**
@@ -123,7 +202,7 @@ public final class HttpRequest {
 	 */
 	public void setBody(byte[] requestBody) {
 		if (requestBody != null && requestBody.length > 0) {
-			this.requestBody = new String(requestBody);
+			this.requestBody = RequestBody.of(requestBody);
 		}
 	}
 
@@ -135,23 +214,60 @@ public final class HttpRequest {
 	 */
 	public void setBody(JsonObject requestBody) {
 		if (requestBody != null && !requestBody.isJsonNull()) {
-			this.requestBody = requestBody.toString();
+			this.requestBody = RequestBody.of(requestBody.toString());
 		}
 	}
 
-	private HttpResponse execute() throws HttpClientException {
-		final HttpConnection conn = new HttpConnection();
-		try {
-			if (this.queryParams != null) {
-				this.url = conn.constructGetURLWithQueryParams(this.url, this.queryParams);
-			}
-			conn.open(this.url, this.httpMethod);
-			conn.addHeaders(this.headers);
-			conn.addBody(this.requestBody);
-			return conn.execute();
-		} finally {
-			conn.close();
+	/**
+	 * Set the request body source. Bytes, buffers, files, streams and
+	 * writer callbacks are sent as they are produced, see
+	 * {@link RequestBody}.
+	 * 
+	 * @param requestBody
+	 *            - body to send in HTTP request.
+	 */
+	public void setBody(RequestBody requestBody) {
+		this.requestBody = requestBody;
+	}
+
+	/**
+	 * Compile the settings of this handler into an immutable request for the
+	 * given URL. Method, Request Data, Query Parameters and Headers are
+	 * copied, later changes to the handler do not affect the prepared
+	 * request. The URL and the query parameter values may contain
+	 * {@code {name}} variables resolved on each call.
+	 * 
+	 * @param url
+	 *            - HTTP URL template to call
+	 * @return PreparedRequest - request to execute any number of times
+	 * @throws HttpClientException
+	 *             if the URL is empty or malformed
+	 */
+	public PreparedRequest prepare(String url) throws HttpClientException {
+		final ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		if (result.isError()) {
+			throw new HttpClientException(ResponseCode.VALIDATION_ERROR, result.getMessage());
 		}
+		return new PreparedRequest(this.httpMethod, url, this.queryParams, this.headers, this.requestBody, this.config,
+				this.streaming, this.requestCompression, this.retryPolicy, this.hedgePolicy, this.timeouts);
+	}
+
+	private HttpCall newCall(String url, HttpMethod httpMethod, Map<String, String> queryParams,
+			Map<String, String> headers, RequestBody requestBody) {
+		return new HttpCall(httpMethod, url, queryParams, headers, requestBody, this.config)
+				.setStreaming(this.streaming)
+				.setRequestCompression(this.requestCompression)
+				.setTimeouts(this.timeouts)
+				.setRetryPolicy(this.retryPolicy)
+				.setHedgePolicy(this.hedgePolicy);
+	}
+
+	private ValidationResult validate(String url, HttpMethod httpMethod, Map<String, String> queryParams,
+			Map<String, String> headers) {
+		ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		result = Validator.validateSpecialParam(result, Key.HTTP_METHOD, httpMethod);
+		result = Validator.validateQueryParam(result, Key.QUERY_PARAM, queryParams);
+		return Validator.validateHeaders(result, Key.HEADERS, headers);
 	}
 
 	/**
@@ -172,20 +288,12 @@ public final class HttpRequest {
 	 */
 	public HttpResponse execute(String url, HttpMethod httpMethod, Map<String, String> queryParams,
 			Map<String, String> headers, String requestBody) throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		Validator.validateSpecialParam(Key.HTTP_METHOD, httpMethod);
-		Validator.validateQueryParam(Key.QUERY_PARAM, queryParams);
-		Validator.validateHeaders(Key.HEADERS, headers);
-		Validator.validateParam(Key.REQUEST_BODY, requestBody);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return result.getErrors();
 		}
-		this.url = url;
-		this.httpMethod = httpMethod;
-		this.queryParams = queryParams;
-		this.headers = headers;
-		this.requestBody = requestBody;
-		return execute();
+		return newCall(url, httpMethod, queryParams, headers, RequestBody.of(requestBody)).execute();
 	}
 
 	/**
@@ -206,20 +314,39 @@ public final class HttpRequest {
 	 */
 	public HttpResponse execute(String url, HttpMethod httpMethod, Map<String, String> queryParams,
 			Map<String, String> headers, JsonObject requestBody) throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		Validator.validateSpecialParam(Key.HTTP_METHOD, httpMethod);
-		Validator.validateQueryParam(Key.QUERY_PARAM, queryParams);
-		Validator.validateHeaders(Key.HEADERS, headers);
-		Validator.validateParam(Key.REQUEST_BODY, requestBody);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return result.getErrors();
 		}
-		this.url = url;
-		this.httpMethod = httpMethod;
-		this.queryParams = queryParams;
-		this.headers = headers;
-		this.requestBody = requestBody.toString();
-		return execute();
+		return newCall(url, httpMethod, queryParams, headers, RequestBody.of(requestBody.toString()))
+				.execute();
+	}
+
+	/**
+	 * Execute operation on HTTP URL.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param httpMethod
+	 *            - HTTP method to use
+	 * @param queryParams
+	 *            - query parameters to append to HTTP URL
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - body streamed to the server along the request
+	 * @return HttpResponse - response returned by server
+	 * @throws HttpClientException
+	 */
+	public HttpResponse execute(String url, HttpMethod httpMethod, Map<String, String> queryParams,
+			Map<String, String> headers, RequestBody requestBody) throws HttpClientException {
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return result.getErrors();
+		}
+		return newCall(url, httpMethod, queryParams, headers, requestBody).execute();
 	}
 
 	/**
@@ -232,12 +359,106 @@ public final class HttpRequest {
 	 * @throws HttpClientException
 	 */
 	public HttpResponse execute(String url) throws HttpClientException {
-		Validator.validateParam(Key.URL, url);
-		if (Validator.isError()) {
-			return Validator.getErrors();
+		final ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		if (result.isError()) {
+			return result.getErrors();
+		}
+		return newCall(url, this.httpMethod, this.queryParams, this.headers, this.requestBody).execute();
+	}
+
+	/**
+	 * Execute operation on HTTP URL without blocking the caller. The request
+	 * runs on the executor of the client configuration, cancelling the
+	 * returned future aborts the connection.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param httpMethod
+	 *            - HTTP method to use
+	 * @param queryParams
+	 *            - query parameters to append to HTTP URL
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - parameters to send along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, HttpMethod httpMethod,
+			Map<String, String> queryParams, Map<String, String> headers, String requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, httpMethod, queryParams, headers, RequestBody.of(requestBody)).executeAsync();
+	}
+
+	/**
+	 * Execute operation on HTTP URL without blocking the caller.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param httpMethod
+	 *            - HTTP method to use
+	 * @param queryParams
+	 *            - query parameters to append to HTTP URL
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - JSON format parameters to send along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, HttpMethod httpMethod,
+			Map<String, String> queryParams, Map<String, String> headers, JsonObject requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, httpMethod, queryParams, headers, RequestBody.of(requestBody.toString()))
+				.executeAsync();
+	}
+
+	/**
+	 * Execute operation on HTTP URL without blocking the caller.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @param httpMethod
+	 *            - HTTP method to use
+	 * @param queryParams
+	 *            - query parameters to append to HTTP URL
+	 * @param headers
+	 *            - HTTP headers to send along the request
+	 * @param requestBody
+	 *            - body streamed to the server along the request
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url, HttpMethod httpMethod,
+			Map<String, String> queryParams, Map<String, String> headers, RequestBody requestBody) {
+		final ValidationResult result = Validator.validateParam(validate(url, httpMethod, queryParams, headers),
+				Key.REQUEST_BODY, requestBody);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
+		}
+		return newCall(url, httpMethod, queryParams, headers, requestBody).executeAsync();
+	}
+
+	/**
+	 * Execute operation on HTTP URL without blocking the caller. Use this
+	 * method when Method, Request Data, Query Parameters and Headers are set
+	 * individually in respective setters.
+	 * 
+	 * @param url
+	 *            - HTTP URL to call
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(String url) {
+		final ValidationResult result = Validator.validateParam(ValidationResult.VALID, Key.URL, url);
+		if (result.isError()) {
+			return CompletableFuture.completedFuture(result.getErrors());
 		}
-		this.url = url;
-		return execute();
+		return newCall(url, this.httpMethod, this.queryParams, this.headers, this.requestBody).executeAsync();
 	}
 
 }
@@ -1,20 +1,29 @@
 package rv.httpclient;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import com.google.gson.JsonIOException;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonParser;
 
 import rv.httpclient.util.HttpHelper;
 import rv.httpclient.util.ResponseCode;
@@ -28,11 +37,47 @@ import rv.httpclient.util.ResponseCode;
  *           <p>
  *           A utility handler for processing HTTP response.
  *           </p>
+ *           <p>
+ *           The body is kept as raw bytes and decoded with the charset of the
+ *           Content-Type header only when text is asked for, the decoded text
+ *           is cached.
+ *           </p>
+ *           <p>
+ *           In streaming mode the response holds the live body stream instead
+ *           of a buffered copy. The connection stays leased until the
+ *           response is closed.
+ *           </p>
  *
  */
-public final class HttpResponse {
+public final class HttpResponse implements Closeable {
+
+	/** Receives the body chunk by chunk, see {@link HttpResponse#readChunks(int, ChunkHandler)}. */
+	public interface ChunkHandler {
+
+		/***
+		 * @param chunk
+		 *            - buffer reused for every chunk, valid during the call only
+		 * @param length
+		 *            - number of bytes of the chunk
+		 * @throws IOException
+		 */
+		void onChunk(byte[] chunk, int length) throws IOException;
+
+	}
+
+	/** Largest buffer allocated up front from Content-Length, beyond it the buffer grows as bytes arrive. */
+	private static final int MAX_PRESIZE = 1024 * 1024;
+
+	private byte[] body;
+
+	private int bodyLength;
 
-	private StringBuilder sb;
+	/** Body array also held by a cache, copied before it is handed out. */
+	private boolean sharedBody;
+
+	private volatile String text;
+
+	private InputStream stream;
 
 	private HttpAck httpAck;
 
@@ -40,28 +85,229 @@ public final class HttpResponse {
 
 	private String responseMessage;
 
-	private Map<String, List<String>> headers;
+	private ResponseHeaders headers = ResponseHeaders.EMPTY;
 
 	public HttpResponse() {
 		httpAck = new HttpAck();
 	}
 
 	public JsonObject getJson() throws HttpClientException {
-		try {
-			return (JsonObject) new JsonParser().parse(new StringReader(sb.toString()));
-		} catch (JsonIOException e) {
-			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to parse response to construct JSON.", e);
-		} catch (JsonParseException e) {
-			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to parse response to construct JSON.", e);
+		return getJson(JsonObject.class);
+	}
+
+	/**
+	 * Parses the body into a JSON tree, whether it holds an object, an array
+	 * or a primitive.
+	 */
+	public JsonElement getJsonElement() throws HttpClientException {
+		return getJson(JsonElement.class);
+	}
+
+	/**
+	 * Binds the JSON body to a class. A streaming body is bound while it is
+	 * read from the connection.
+	 */
+	public <T> T getJson(Class<T> type) throws HttpClientException {
+		return getJson((Type) type);
+	}
+
+	/**
+	 * Binds the JSON body to a generic type such as {@code List<Foo>}. A
+	 * streaming body is bound while it is read from the connection.
+	 */
+	public <T> T getJson(Type type) throws HttpClientException {
+		final InputStream stream = this.stream;
+		if (stream != null) {
+			try {
+				final T value = HttpHelper.constructJsonResponse(type, new InputStreamReader(stream, getCharset()));
+				drain(stream);
+				return value;
+			} finally {
+				close();
+			}
+		}
+		if (body == null) {
+			return null;
 		}
+		final String text = this.text;
+		return HttpHelper.constructJsonResponse(type, text != null ? new StringReader(text)
+				: new InputStreamReader(new ByteArrayInputStream(body, 0, bodyLength), getCharset()));
 	}
 
 	public <T> T getXML(Class<T> t) throws HttpClientException {
-		return HttpHelper.constructXMLResponse(t, getXML());
+		final InputStream stream = this.stream;
+		if (stream != null) {
+			try {
+				final T value = HttpHelper.constructXMLResponse(t, stream);
+				drain(stream);
+				return value;
+			} finally {
+				close();
+			}
+		}
+		if (body == null || bodyLength == 0) {
+			return null;
+		}
+		return HttpHelper.constructXMLResponse(t, new ByteArrayInputStream(body, 0, bodyLength));
 	}
 
 	public String getXML() throws HttpClientException {
-		return sb != null ? sb.toString() : null;
+		buffer();
+		String text = this.text;
+		if (text == null && body != null) {
+			text = new String(body, 0, bodyLength, getCharset());
+			this.text = text;
+		}
+		return text;
+	}
+
+	/**
+	 * Raw bytes of the body, null if the response had none.
+	 */
+	public byte[] getBytes() throws HttpClientException {
+		buffer();
+		if (body != null && (sharedBody || body.length != bodyLength)) {
+			body = Arrays.copyOf(body, bodyLength);
+			sharedBody = false;
+		}
+		return body;
+	}
+
+	/**
+	 * Read-only view of the body without copying it.
+	 */
+	public ByteBuffer getByteBuffer() throws HttpClientException {
+		buffer();
+		return body != null ? ByteBuffer.wrap(body, 0, bodyLength).asReadOnlyBuffer() : null;
+	}
+
+	/**
+	 * Charset named by the Content-Type header, UTF-8 if there is none.
+	 */
+	public Charset getCharset() {
+		final String contentType = headers.getFirst("Content-Type");
+		if (contentType != null) {
+			final int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+			if (index >= 0) {
+				String name = contentType.substring(index + "charset=".length());
+				final int end = name.indexOf(';');
+				name = (end >= 0 ? name.substring(0, end) : name).trim().replace("\"", "");
+				try {
+					return Charset.forName(name);
+				} catch (IllegalCharsetNameException e) {
+					return StandardCharsets.UTF_8;
+				} catch (UnsupportedCharsetException e) {
+					return StandardCharsets.UTF_8;
+				}
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	/** Whether the body is read from the live connection. */
+	public boolean isStreaming() {
+		return stream != null;
+	}
+
+	/**
+	 * Body of the response. In streaming mode this is the live stream and can
+	 * be read only once.
+	 */
+	public InputStream getBodyStream() {
+		if (stream != null) {
+			return stream;
+		}
+		return body != null ? new ByteArrayInputStream(body, 0, bodyLength) : new ByteArrayInputStream(new byte[0]);
+	}
+
+	/** Body of the response as a channel, see {@link #getBodyStream()}. */
+	public ReadableByteChannel getBodyChannel() {
+		return Channels.newChannel(getBodyStream());
+	}
+
+	/***
+	 * Reads the body in chunks of at most the given size, so that any payload
+	 * is processed with a fixed buffer.
+	 * 
+	 * @param chunkSize
+	 *            - maximum number of bytes per chunk
+	 * @param handler
+	 *            - receives every chunk
+	 * @return total number of bytes read
+	 * @throws HttpClientException
+	 */
+	public long readChunks(final int chunkSize, final ChunkHandler handler) throws HttpClientException {
+		final byte[] chunk = new byte[chunkSize];
+		final InputStream in = getBodyStream();
+		long total = 0;
+		try {
+			int n;
+			while ((n = in.read(chunk)) != -1) {
+				if (n > 0) {
+					handler.onChunk(chunk, n);
+					total += n;
+				}
+			}
+			return total;
+		} catch (IOException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to read response body.", e);
+		} finally {
+			if (in == stream) {
+				close();
+			}
+		}
+	}
+
+	public void setBodyStream(InputStream stream) {
+		this.stream = stream;
+	}
+
+	/**
+	 * Releases the connection of a streaming response. The connection is
+	 * reused only if the body was read to the end.
+	 */
+	@Override
+	public void close() {
+		final InputStream stream = this.stream;
+		if (stream != null) {
+			this.stream = null;
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// the connection is discarded anyway
+			}
+		}
+	}
+
+	/**
+	 * Reads trailing bytes after a parsed document so that the connection
+	 * can be reused.
+	 */
+	private static void drain(final InputStream stream) {
+		final byte[] buffer = new byte[256];
+		try {
+			while (stream.read(buffer) != -1) {
+				// discard
+			}
+		} catch (IOException e) {
+			// the connection is discarded on close
+		}
+	}
+
+	/**
+	 * Reads what is left of a streaming body so that it can be parsed.
+	 */
+	private void buffer() throws HttpClientException {
+		final InputStream stream = this.stream;
+		if (stream != null) {
+			try {
+				setResponseDate(stream, Long.MAX_VALUE);
+			} catch (IOException e) {
+				throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to read response body.", e);
+			} finally {
+				close();
+			}
+		}
 	}
 
 	public HttpAck getHttpAck() {
@@ -72,12 +318,18 @@ public final class HttpResponse {
 		this.httpAck = httpAck;
 	}
 
-	public Map<String, List<String>> getHeaders() {
+	/** Response headers, looked up by name in any case. */
+	public ResponseHeaders getHeaders() {
 		return headers;
 	}
 
 	public void setHeaders(Map<String, List<String>> headers) {
-		this.headers = headers;
+		this.headers = ResponseHeaders.of(headers);
+	}
+
+	/** First value of a response header in any case, null if absent. */
+	public String getHeader(String name) {
+		return headers.getFirst(name);
 	}
 
 	public String getResponseMessage() {
@@ -97,12 +349,111 @@ public final class HttpResponse {
 	}
 
 	public void setResponseDate(final InputStream stream) throws IOException {
-		final BufferedReader br = new BufferedReader(new InputStreamReader(stream));
-		sb = new StringBuilder();
-		String output = null;
-		while ((output = br.readLine()) != null) {
-			sb.append(output);
+		setResponseDate(stream, Long.MAX_VALUE);
+	}
+
+	/***
+	 * Buffers the body of the response.
+	 * 
+	 * @param stream
+	 *            - body to read to the end
+	 * @param maxBodySize
+	 *            - maximum number of bytes to buffer
+	 * @throws IOException
+	 *             if the stream fails or the body is larger than allowed
+	 */
+	public void setResponseDate(final InputStream stream, final long maxBodySize) throws IOException {
+		// Content-Length of an encoded body is the size on the wire, not of the decoded stream
+		setResponseDate(stream, maxBodySize,
+				headers.contains("Content-Encoding") ? -1 : headers.getContentLength());
+	}
+
+	/***
+	 * Buffers the body of the response.
+	 * 
+	 * @param stream
+	 *            - body to read to the end
+	 * @param maxBodySize
+	 *            - maximum number of bytes to buffer
+	 * @param expectedLength
+	 *            - number of bytes the stream is expected to hold, -1 if not
+	 *            known
+	 * @throws IOException
+	 *             if the stream fails or the body is larger than allowed
+	 */
+	void setResponseDate(final InputStream stream, final long maxBodySize, final long expectedLength)
+			throws IOException {
+		byte[] buffer = new byte[expectedLength >= 0 && expectedLength <= maxBodySize
+				? (int) Math.min(expectedLength, MAX_PRESIZE) : 8192];
+		int length = 0;
+		while (true) {
+			if (length == buffer.length) {
+				// full, probe for more before growing
+				final int next = stream.read();
+				if (next == -1) {
+					break;
+				}
+				buffer = Arrays.copyOf(buffer, (int) Math.max(8192, Math.min(Integer.MAX_VALUE - 8, buffer.length * 2L)));
+				buffer[length++] = (byte) next;
+			}
+			if (length > maxBodySize) {
+				throw new IOException("Response body exceeds " + maxBodySize + " bytes.");
+			}
+			final int n = stream.read(buffer, length, buffer.length - length);
+			if (n == -1) {
+				break;
+			}
+			length += n;
 		}
+		this.body = buffer;
+		this.bodyLength = length;
+		this.sharedBody = false;
+		this.text = null;
+	}
+
+	/** Buffers the body and hands its array out without copying it. */
+	byte[] shareBody() throws HttpClientException {
+		buffer();
+		sharedBody = true;
+		return body;
+	}
+
+	/***
+	 * Buffers the body and returns a response of its own with the same
+	 * status, headers and body array, for another caller of a shared call.
+	 * Each response copies the array before handing it out for writing.
+	 */
+	HttpResponse share() throws HttpClientException {
+		shareBody();
+		return copy();
+	}
+
+	/** Response with the same status, headers and shared body, only reads this one. */
+	HttpResponse copy() {
+		final HttpResponse copy = new HttpResponse();
+		copy.responseCode = responseCode;
+		copy.responseMessage = responseMessage;
+		copy.headers = headers;
+		final HttpAck ack = copy.getHttpAck();
+		ack.setStatus(httpAck.getStatus());
+		ack.setErrorType(httpAck.getErrorType());
+		ack.setErrorCode(httpAck.getErrorCode());
+		ack.setErrorMessage(httpAck.getErrorMessage());
+		if (body != null) {
+			copy.setSharedBody(body, bodyLength);
+		}
+		return copy;
+	}
+
+	int getBodyLength() {
+		return bodyLength;
+	}
+
+	void setSharedBody(byte[] body, int length) {
+		this.body = body;
+		this.bodyLength = length;
+		this.sharedBody = true;
+		this.text = null;
 	}
 
 	private String printHeaders() {
@@ -0,0 +1,54 @@
+package rv.httpclient;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Single daemon thread running the delayed work of the client, such
+ *           as batch deadlines and hedged requests. Tasks must be short, they
+ *           hand anything that blocks to an executor.
+ *           </p>
+ *
+ */
+final class HttpTimer {
+
+	private static ScheduledExecutorService timer;
+
+	private HttpTimer() {
+
+	}
+
+	/** Runs the task once after the given delay in milliseconds. */
+	static ScheduledFuture<?> schedule(final Runnable task, final long delay) {
+		return get().schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private static synchronized ScheduledExecutorService get() {
+		if (timer == null) {
+			final ScheduledThreadPoolExecutor executor = (ScheduledThreadPoolExecutor) Executors
+					.newScheduledThreadPool(1, new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							final Thread thread = new Thread(r, "httpclient-timer");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			// most tasks are cancelled long before they are due
+			executor.setRemoveOnCancelPolicy(true);
+			timer = executor;
+		}
+		return timer;
+	}
+
+}
@@ -0,0 +1,167 @@
+package rv.httpclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Histogram of durations in nanoseconds. Values are counted in log
+ *           linear buckets, 16 per power of two, so a percentile is off by at
+ *           most about 6 percent. Recording is a few atomic increments without
+ *           a lock or an allocation, meant to be called on every request.
+ *           </p>
+ *           <p>
+ *           Percentiles are read from a {@link Snapshot}. A snapshot taken
+ *           while values are recorded may miss the latest ones, but never
+ *           counts a value twice, {@link #snapshotAndReset()} moves every
+ *           value to exactly one snapshot.
+ *           </p>
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/** Records a duration, negative ones are ignored. */
+	public void record(final long nanos) {
+		if (nanos < 0) {
+			return;
+		}
+		counts.incrementAndGet(index(nanos));
+		sum.addAndGet(nanos);
+		long current;
+		while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+			// retry
+		}
+	}
+
+	/** Copy of the recorded values. */
+	public Snapshot snapshot() {
+		final long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = counts.get(i);
+		}
+		return new Snapshot(copy, sum.get(), max.get());
+	}
+
+	/** Copy of the recorded values, which are cleared. */
+	public Snapshot snapshotAndReset() {
+		final long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = counts.getAndSet(i, 0);
+		}
+		return new Snapshot(copy, sum.getAndSet(0), max.getAndSet(0));
+	}
+
+	public void reset() {
+		snapshotAndReset();
+	}
+
+	/** Exact below 16, else the top five bits of the value. */
+	private static int index(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/** Highest value counted in a bucket. */
+	private static long highest(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+		final long mantissa = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+		final long highest = ((mantissa + 1) << shift) - 1;
+		return highest < 0 ? Long.MAX_VALUE : highest;
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	/** Recorded values at one point in time. */
+	public static final class Snapshot {
+
+		private final long[] counts;
+
+		private final long count;
+
+		private final long sum;
+
+		private final long max;
+
+		private Snapshot(long[] counts, long sum, long max) {
+			this.counts = counts;
+			long count = 0;
+			for (long c : counts) {
+				count += c;
+			}
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/** Mean in nanoseconds, 0 if nothing was recorded. */
+		public long getMean() {
+			return count == 0 ? 0 : sum / count;
+		}
+
+		/** Longest duration in nanoseconds. */
+		public long getMax() {
+			return max;
+		}
+
+		/***
+		 * Duration in nanoseconds that the given share of the values does not
+		 * exceed, 0 if nothing was recorded.
+		 *
+		 * @param percentile
+		 *            - between 0 and 100, e.g. 99.9
+		 * @return nanoseconds
+		 */
+		public long getPercentile(final double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			final long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(highest(i), max);
+				}
+			}
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("count=%s, mean=%sus, p50=%sus, p90=%sus, p99=%sus, p999=%sus, max=%sus", count,
+					getMean() / 1000, getPercentile(50) / 1000, getPercentile(90) / 1000, getPercentile(99) / 1000,
+					getPercentile(99.9) / 1000, max / 1000);
+		}
+	}
+
+}
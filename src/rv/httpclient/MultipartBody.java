@@ -0,0 +1,227 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import rv.httpclient.util.ContentType;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           {@link ContentType#FORM_DATA} request body. Parts are written one
+ *           after the other straight to the connection, files and streams in
+ *           small blocks, so a body of any size is sent with a fixed buffer.
+ *           When every part has a known size the Content-Length is computed
+ *           up front, otherwise the body is sent chunked.
+ *           </p>
+ *           <p>
+ *           The Content-Type header with the boundary is always set from
+ *           {@link #contentType()}, replacing one the request already has.
+ *           Parts must not be added while the body is being sent.
+ *           </p>
+ *
+ */
+public final class MultipartBody extends RequestBody {
+
+	private static final byte[] CRLF = { '\r', '\n' };
+
+	private static final byte[] DASHES = { '-', '-' };
+
+	private static final String OCTET_STREAM = "application/octet-stream";
+
+	private final String boundary;
+
+	private final List<Part> parts = new ArrayList<Part>();
+
+	/** Body with a random boundary. */
+	public MultipartBody() {
+		this(randomBoundary());
+	}
+
+	/***
+	 * Body with a given boundary.
+	 *
+	 * @param boundary
+	 *            - 1 to 70 characters allowed by RFC 2046, letters, digits,
+	 *            space and {@code '()+_,-./:=?}, not ending in a space, that
+	 *            do not occur in any part
+	 */
+	public MultipartBody(String boundary) {
+		if (boundary == null || boundary.isEmpty() || boundary.length() > 70
+				|| boundary.charAt(boundary.length() - 1) == ' ') {
+			throw new IllegalArgumentException("Boundary must have 1 to 70 characters and not end in a space.");
+		}
+		for (int i = 0; i < boundary.length(); i++) {
+			if (!isBoundaryChar(boundary.charAt(i))) {
+				throw new IllegalArgumentException("Boundary must not contain '" + boundary.charAt(i) + "'.");
+			}
+		}
+		this.boundary = boundary;
+	}
+
+	public String getBoundary() {
+		return boundary;
+	}
+
+	/** Text field, sent as UTF-8. */
+	public MultipartBody addField(final String name, final String value) {
+		return addPart(name, null, null, RequestBody.of(value));
+	}
+
+	/** File field of the given bytes, the array is not copied. */
+	public MultipartBody addBytes(final String name, final String filename, final String contentType,
+			final byte[] bytes) {
+		return addPart(name, filename, contentType, RequestBody.of(bytes));
+	}
+
+	/***
+	 * File field read from a stream while it is sent. The body can then only
+	 * be sent once.
+	 *
+	 * @param name
+	 *            - field name
+	 * @param filename
+	 *            - file name reported to the server
+	 * @param contentType
+	 *            - media type of the content, null for application/octet-stream
+	 * @param stream
+	 *            - content, closed once written
+	 * @param length
+	 *            - number of bytes of the stream, -1 if unknown
+	 * @return this body
+	 */
+	public MultipartBody addStream(final String name, final String filename, final String contentType,
+			final InputStream stream, final long length) {
+		return addPart(name, filename, contentType, RequestBody.of(stream, length));
+	}
+
+	/** File field read from disk while it is sent, the media type is guessed from the file. */
+	public MultipartBody addFile(final String name, final Path file) throws IOException {
+		return addFile(name, file, Files.probeContentType(file));
+	}
+
+	/** File field read from disk while it is sent. */
+	public MultipartBody addFile(final String name, final Path file, final String contentType) throws IOException {
+		final Path filename = file.getFileName();
+		return addPart(name, filename != null ? filename.toString() : null, contentType, RequestBody.of(file));
+	}
+
+	/***
+	 * Adds a part.
+	 *
+	 * @param name
+	 *            - field name
+	 * @param filename
+	 *            - file name reported to the server, null for a plain field
+	 * @param contentType
+	 *            - media type of the content, null for text/plain on plain
+	 *            fields and application/octet-stream on files
+	 * @param content
+	 *            - content of the part
+	 * @return this body
+	 */
+	public MultipartBody addPart(final String name, final String filename, final String contentType,
+			final RequestBody content) {
+		if (name == null || content == null) {
+			throw new IllegalArgumentException("Part needs a name and a content.");
+		}
+		final StringBuilder head = new StringBuilder("--").append(boundary)
+				.append("\r\nContent-Disposition: form-data; name=\"").append(escape(name)).append('"');
+		if (filename != null) {
+			head.append("; filename=\"").append(escape(filename)).append('"');
+		}
+		if (contentType != null || filename != null) {
+			head.append("\r\nContent-Type: ").append(contentType != null ? contentType : OCTET_STREAM);
+		}
+		head.append("\r\n\r\n");
+		parts.add(new Part(head.toString().getBytes(StandardCharsets.UTF_8), content));
+		return this;
+	}
+
+	/** Content-Type header of the body, with the boundary quoted if it is not a token. */
+	@Override
+	public String contentType() {
+		for (int i = 0; i < boundary.length(); i++) {
+			if (" ()/:=?,".indexOf(boundary.charAt(i)) >= 0) {
+				return ContentType.FORM_DATA.get() + "; boundary=\"" + boundary + "\"";
+			}
+		}
+		return ContentType.FORM_DATA.get() + "; boundary=" + boundary;
+	}
+
+	@Override
+	public long contentLength() {
+		long length = DASHES.length + boundary.length() + DASHES.length + CRLF.length;
+		for (Part part : parts) {
+			final long content = part.content.contentLength();
+			if (content < 0) {
+				return -1;
+			}
+			length += part.head.length + content + CRLF.length;
+		}
+		return length;
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		for (Part part : parts) {
+			if (!part.content.isRepeatable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void writeTo(final OutputStream out) throws IOException {
+		for (Part part : parts) {
+			out.write(part.head);
+			part.content.writeTo(out);
+			out.write(CRLF);
+		}
+		out.write(DASHES);
+		out.write(boundary.getBytes(StandardCharsets.US_ASCII));
+		out.write(DASHES);
+		out.write(CRLF);
+	}
+
+	/** Quotes and line breaks in names are percent encoded, as browsers do. */
+	private static String escape(final String value) {
+		return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+	}
+
+	private static String randomBoundary() {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		return "----rvhttpclient" + Long.toHexString(random.nextLong() | Long.MIN_VALUE)
+				+ Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+	}
+
+	/** bchars of RFC 2046. */
+	private static boolean isBoundaryChar(final char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || "'()+_,-./:=? ".indexOf(c) >= 0;
+	}
+
+	private static final class Part {
+
+		private final byte[] head;
+
+		private final RequestBody content;
+
+		private Part(byte[] head, RequestBody content) {
+			this.head = head;
+			this.content = content;
+		}
+	}
+
+}
@@ -0,0 +1,31 @@
+package rv.httpclient;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           A keep-alive connection that can be parked in a
+ *           {@link ConnectionPool} between requests.
+ *           </p>
+ *
+ */
+public interface PooledConnection {
+
+	/**
+	 * Checks whether the connection can no longer be used, e.g. because the
+	 * remote server closed it while it was idle.
+	 *
+	 * @return true if the connection must be discarded
+	 */
+	boolean isStale();
+
+	/**
+	 * Closes the underlying socket. Called when the connection is evicted from
+	 * the pool.
+	 */
+	void close();
+
+}
@@ -0,0 +1,226 @@
+package rv.httpclient;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Immutable request compiled once from the settings of a handler,
+ *           see {@link HttpRequest#prepare(String)}. The URL with its query
+ *           string is parsed and the headers are encoded up front, executing
+ *           it only resolves the URL variables if there are any.
+ *           </p>
+ *           <p>
+ *           The URL and the query parameter values may contain variables
+ *           written as {@code {name}}, their values are percent-encoded on
+ *           every call. A prepared request can be executed from many threads
+ *           at once, provided its body is repeatable.
+ *           </p>
+ *
+ */
+public final class PreparedRequest {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final HttpMethod httpMethod;
+
+	/** Literal parts of the URL, one more than there are variables. */
+	private final String[] segments;
+
+	private final String[] variables;
+
+	/** Parsed URL of a request without variables. */
+	private final URL target;
+
+	private final String template;
+
+	private final HeaderBlock headers;
+
+	private final RequestBody requestBody;
+
+	private final HttpClientConfig config;
+
+	private final boolean streaming;
+
+	private final long requestCompression;
+
+	private final RetryPolicy retryPolicy;
+
+	private final HedgePolicy hedgePolicy;
+
+	private final Timeouts timeouts;
+
+	PreparedRequest(HttpMethod httpMethod, String url, Map<String, String> queryParams, Map<String, String> headers,
+			RequestBody requestBody, HttpClientConfig config, boolean streaming, long requestCompression,
+			RetryPolicy retryPolicy, HedgePolicy hedgePolicy, Timeouts timeouts) throws HttpClientException {
+		this.httpMethod = httpMethod;
+		this.headers = HeaderBlock.of(headers);
+		this.requestBody = requestBody;
+		this.config = config;
+		this.streaming = streaming;
+		this.requestCompression = requestCompression;
+		this.retryPolicy = retryPolicy;
+		this.hedgePolicy = hedgePolicy;
+		this.timeouts = timeouts;
+
+		final String template = queryParams != null ? HttpConnection.withQueryParams(url, queryParams) : url;
+		final List<String> segments = new ArrayList<String>();
+		final List<String> variables = new ArrayList<String>();
+		int from = 0;
+		int open;
+		while ((open = template.indexOf('{', from)) != -1) {
+			final int close = template.indexOf('}', open + 1);
+			if (close == -1) {
+				throw new HttpClientException(ResponseCode.VALIDATION_ERROR, "Unterminated URL variable in " + template);
+			}
+			segments.add(template.substring(from, open));
+			variables.add(template.substring(open + 1, close));
+			from = close + 1;
+		}
+		segments.add(template.substring(from));
+		this.segments = segments.toArray(new String[segments.size()]);
+		this.variables = variables.toArray(new String[variables.size()]);
+		this.template = template;
+		this.target = this.variables.length == 0 ? parse(template) : null;
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	/** Names of the URL variables in order of appearance. */
+	public List<String> getVariables() {
+		return Collections.unmodifiableList(Arrays.asList(variables));
+	}
+
+	/**
+	 * Execute the request. Use this method when the URL has no variables.
+	 *
+	 * @return HttpResponse - response returned by server
+	 * @throws HttpClientException
+	 */
+	public HttpResponse execute() throws HttpClientException {
+		return execute(Collections.<String, String> emptyMap());
+	}
+
+	/**
+	 * Execute the request.
+	 *
+	 * @param values
+	 *            - values of the URL variables by name
+	 * @return HttpResponse - response returned by server
+	 * @throws HttpClientException
+	 *             if a variable has no value
+	 */
+	public HttpResponse execute(Map<String, String> values) throws HttpClientException {
+		return newCall(resolve(values)).execute();
+	}
+
+	/**
+	 * Execute the request without blocking the caller. Use this method when
+	 * the URL has no variables.
+	 *
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync() {
+		return executeAsync(Collections.<String, String> emptyMap());
+	}
+
+	/**
+	 * Execute the request without blocking the caller. Cancelling the returned
+	 * future aborts the connection.
+	 *
+	 * @param values
+	 *            - values of the URL variables by name
+	 * @return future completed with the response returned by server
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(Map<String, String> values) {
+		final URL target;
+		try {
+			target = resolve(values);
+		} catch (HttpClientException e) {
+			final CompletableFuture<HttpResponse> future = new CompletableFuture<HttpResponse>();
+			future.completeExceptionally(e);
+			return future;
+		}
+		return newCall(target).executeAsync();
+	}
+
+	/** Call of a resolved URL on the given executor, the configured one if null. */
+	CompletableFuture<HttpResponse> executeAsync(final URL target, final Executor executor) {
+		return executor != null ? newCall(target).executeAsync(executor) : newCall(target).executeAsync();
+	}
+
+	private HttpCall newCall(final URL target) {
+		return new HttpCall(httpMethod, target, headers, requestBody, config).setStreaming(streaming)
+				.setRequestCompression(requestCompression).setTimeouts(timeouts)
+				.setRetryPolicy(retryPolicy)
+				.setHedgePolicy(hedgePolicy);
+	}
+
+	URL resolve(final Map<String, String> values) throws HttpClientException {
+		if (target != null) {
+			return target;
+		}
+		final StringBuilder sb = new StringBuilder(template.length() + 16 * variables.length);
+		for (int i = 0; i < variables.length; i++) {
+			sb.append(segments[i]);
+			final String value = values != null ? values.get(variables[i]) : null;
+			if (value == null) {
+				throw new HttpClientException(ResponseCode.VALIDATION_ERROR,
+						"No value for URL variable {" + variables[i] + "}.");
+			}
+			encode(value, sb);
+		}
+		sb.append(segments[variables.length]);
+		return parse(sb.toString());
+	}
+
+	private static URL parse(final String url) throws HttpClientException {
+		try {
+			return new URL(url);
+		} catch (MalformedURLException e) {
+			throw new HttpClientException(ResponseCode.VALIDATION_ERROR, "Malformed URL " + url, e);
+		}
+	}
+
+	/** Percent-encodes everything but the unreserved characters of RFC 3986. */
+	private static void encode(final String value, final StringBuilder sb) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '.'
+					|| c == '_' || c == '~') {
+				sb.append(c);
+			} else {
+				final int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+				for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+					sb.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+				}
+				i = end - 1;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PreparedRequest [httpMethod=%s, url=%s, headers=%s]", httpMethod,
+				template, headers.size());
+	}
+
+}
@@ -0,0 +1,351 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import rv.httpclient.util.ContentType;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Ordered list of query or form parameters, a name may occur more
+ *           than once. Names and values are taken as they are and encoded
+ *           like {@link java.net.URLEncoder} in UTF-8 does: letters, digits
+ *           and {@code - . _ *} are kept, a space becomes {@code +} and
+ *           everything else is percent encoded. Text that needs no encoding
+ *           is copied as a whole and the encoded form of parameter names is
+ *           cached, so encoding a typical query only appends to the buffer.
+ *           </p>
+ *           <p>
+ *           {@link #toFormBody()} sends the same encoding as an
+ *           {@link ContentType#FORM_URL_ENCODED} request body.
+ *           </p>
+ *
+ */
+public final class QueryParams {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private static final boolean[] SAFE = new boolean[128];
+
+	private static final int MAX_CACHED_NAMES = 1024;
+
+	private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<String, String>();
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			SAFE[c] = true;
+			SAFE[c - 'a' + 'A'] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			SAFE[c] = true;
+		}
+		SAFE['-'] = true;
+		SAFE['.'] = true;
+		SAFE['_'] = true;
+		SAFE['*'] = true;
+	}
+
+	private final List<String> names = new ArrayList<String>();
+
+	private final List<String> values = new ArrayList<String>();
+
+	/** Parameters of a map in its iteration order, null keys are skipped. */
+	public static QueryParams of(final Map<String, String> params) {
+		return new QueryParams().addAll(params);
+	}
+
+	/***
+	 * Adds a parameter after the ones already added.
+	 *
+	 * @param name
+	 *            - name of the parameter
+	 * @param value
+	 *            - value, null for an empty one
+	 * @return this list
+	 */
+	public QueryParams add(final String name, final String value) {
+		if (name == null) {
+			throw new IllegalArgumentException("Parameter name must not be null.");
+		}
+		names.add(name);
+		values.add(value != null ? value : "");
+		return this;
+	}
+
+	/** Adds the parameter once per value. */
+	public QueryParams addAll(final String name, final Iterable<String> values) {
+		for (String value : values) {
+			add(name, value);
+		}
+		return this;
+	}
+
+	/** Adds the parameters of a map in its iteration order, null keys are skipped. */
+	public QueryParams addAll(final Map<String, String> params) {
+		if (params != null) {
+			for (Map.Entry<String, String> param : params.entrySet()) {
+				if (param.getKey() != null) {
+					add(param.getKey(), param.getValue());
+				}
+			}
+		}
+		return this;
+	}
+
+	public int size() {
+		return names.size();
+	}
+
+	/** Encoded parameters, e.g. {@code a=1&b=x+y}. */
+	public String toQueryString() {
+		return appendTo(new StringBuilder(estimate())).toString();
+	}
+
+	/***
+	 * Appends the encoded parameters to a buffer the caller may reuse.
+	 *
+	 * @param out
+	 *            - buffer to append to
+	 * @return the buffer
+	 */
+	public StringBuilder appendTo(final StringBuilder out) {
+		for (int i = 0; i < names.size(); i++) {
+			if (i > 0) {
+				out.append('&');
+			}
+			appendName(names.get(i), out);
+			out.append('=');
+			encode(values.get(i), out, false);
+		}
+		return out;
+	}
+
+	/** URL with the parameters added to its query, before any fragment. */
+	public String appendTo(final String url) {
+		if (names.isEmpty()) {
+			return url;
+		}
+		final int end = fragment(url);
+		final StringBuilder out = new StringBuilder(url.length() + estimate() + 1);
+		startQuery(url, end, out);
+		appendTo(out);
+		return out.append(url, end, url.length()).toString();
+	}
+
+	/** Body sending the encoded parameters as application/x-www-form-urlencoded. */
+	public RequestBody toFormBody() {
+		return new FormBody(this);
+	}
+
+	@Override
+	public String toString() {
+		return toQueryString();
+	}
+
+	/***
+	 * URL with the parameters added, for handlers that were given them
+	 * already encoded. Escapes, {@code +} and the braces of
+	 * {@link PreparedRequest} variables are kept, all other characters are
+	 * encoded.
+	 */
+	static String appendLenient(final String url, final Map<String, String> params) {
+		if (params == null || params.isEmpty()) {
+			return url;
+		}
+		final int end = fragment(url);
+		final StringBuilder out = new StringBuilder(url.length() + 16 * params.size());
+		startQuery(url, end, out);
+		boolean first = true;
+		for (Map.Entry<String, String> param : params.entrySet()) {
+			if (param.getKey() != null) {
+				if (!first) {
+					out.append('&');
+				}
+				first = false;
+				encode(param.getKey(), out, true);
+				out.append('=');
+				if (param.getValue() != null) {
+					encode(param.getValue(), out, true);
+				}
+			}
+		}
+		return out.append(url, end, url.length()).toString();
+	}
+
+	/** Index of the fragment of a URL, its length if it has none. */
+	private static int fragment(final String url) {
+		final int hash = url.indexOf('#');
+		return hash >= 0 ? hash : url.length();
+	}
+
+	/** Appends the URL up to its fragment and the separator the parameters follow. */
+	private static void startQuery(final String url, final int end, final StringBuilder out) {
+		out.append(url, 0, end);
+		final int query = url.lastIndexOf('?', end - 1);
+		if (query < 0) {
+			out.append('?');
+		} else if (query < end - 1 && url.charAt(end - 1) != '&') {
+			out.append('&');
+		}
+	}
+
+	private int estimate() {
+		int length = 0;
+		for (int i = 0; i < names.size(); i++) {
+			length += names.get(i).length() + values.get(i).length() + 2;
+		}
+		return length + (length >> 2);
+	}
+
+	private static void appendName(final String name, final StringBuilder out) {
+		final String cached = NAMES.get(name);
+		if (cached != null) {
+			out.append(cached);
+			return;
+		}
+		final int start = out.length();
+		encode(name, out, false);
+		if (NAMES.size() < MAX_CACHED_NAMES) {
+			NAMES.putIfAbsent(name, out.substring(start));
+		}
+	}
+
+	/***
+	 * Appends the form encoding of text.
+	 *
+	 * @param lenient
+	 *            - keep {@code %XX} escapes, {@code +} and braces as they are
+	 */
+	static void encode(final CharSequence text, final StringBuilder out, final boolean lenient) {
+		final int length = text.length();
+		int i = 0;
+		while (i < length && isSafe(text, i, lenient)) {
+			i++;
+		}
+		out.append(text, 0, i);
+		while (i < length) {
+			final char c = text.charAt(i);
+			if (isSafe(text, i, lenient)) {
+				out.append(c);
+			} else if (c == ' ') {
+				out.append('+');
+			} else if (c < 0x80) {
+				percent(c, out);
+			} else if (c < 0x800) {
+				percent(0xC0 | c >> 6, out);
+				percent(0x80 | c & 0x3F, out);
+			} else {
+				int codePoint = c;
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+					codePoint = Character.toCodePoint(c, text.charAt(++i));
+				} else if (Character.isSurrogate(c)) {
+					// unpaired, sent as a question mark like URLEncoder
+					percent('?', out);
+					i++;
+					continue;
+				}
+				if (codePoint < 0x10000) {
+					percent(0xE0 | codePoint >> 12, out);
+				} else {
+					percent(0xF0 | codePoint >> 18, out);
+					percent(0x80 | codePoint >> 12 & 0x3F, out);
+				}
+				percent(0x80 | codePoint >> 6 & 0x3F, out);
+				percent(0x80 | codePoint & 0x3F, out);
+			}
+			i++;
+		}
+	}
+
+	private static boolean isSafe(final CharSequence text, final int i, final boolean lenient) {
+		final char c = text.charAt(i);
+		if (c < 0x80 && SAFE[c]) {
+			return true;
+		}
+		if (lenient) {
+			return c == '+' || c == '{' || c == '}'
+					|| c == '%' && i + 2 < text.length() && isHex(text.charAt(i + 1))
+					&& isHex(text.charAt(i + 2));
+		}
+		return false;
+	}
+
+	private static boolean isHex(final char c) {
+		return c >= '0' && c <= '9' || c >= 'A' && c <= 'F' || c >= 'a' && c <= 'f';
+	}
+
+	private static void percent(final int b, final StringBuilder out) {
+		out.append('%').append(HEX[b >> 4 & 0xF]).append(HEX[b & 0xF]);
+	}
+
+	/** Form body, encoded one parameter at a time into a small buffer. */
+	private static final class FormBody extends RequestBody {
+
+		private final QueryParams params;
+
+		private FormBody(QueryParams params) {
+			this.params = params;
+		}
+
+		@Override
+		public String contentType() {
+			return ContentType.FORM_URL_ENCODED.get();
+		}
+
+		@Override
+		public long contentLength() {
+			long length = 0;
+			final StringBuilder buffer = new StringBuilder(64);
+			for (int i = 0; i < params.names.size(); i++) {
+				buffer.setLength(0);
+				encodeParam(i, buffer);
+				length += buffer.length();
+			}
+			return length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(final OutputStream out) throws IOException {
+			final StringBuilder buffer = new StringBuilder(64);
+			final byte[] bytes = new byte[4096];
+			int n = 0;
+			for (int i = 0; i < params.names.size(); i++) {
+				buffer.setLength(0);
+				encodeParam(i, buffer);
+				// the encoding is ASCII, one byte per char
+				for (int j = 0; j < buffer.length(); j++) {
+					if (n == bytes.length) {
+						out.write(bytes, 0, n);
+						n = 0;
+					}
+					bytes[n++] = (byte) buffer.charAt(j);
+				}
+			}
+			out.write(bytes, 0, n);
+		}
+
+		private void encodeParam(final int i, final StringBuilder buffer) {
+			if (i > 0) {
+				buffer.append('&');
+			}
+			appendName(params.names.get(i), buffer);
+			buffer.append('=');
+			encode(params.values.get(i), buffer, false);
+		}
+	}
+
+}
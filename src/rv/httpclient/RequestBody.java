@@ -0,0 +1,290 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Source of a request body, written straight to the connection.
+ *           Bodies of known length are sent with a fixed Content-Length,
+ *           others with chunked transfer encoding, so the body is never held
+ *           in memory as a whole by the client.
+ *           </p>
+ *           <p>
+ *           {@link MultipartBody} builds a multipart/form-data body from such
+ *           parts.
+ *           </p>
+ *
+ */
+public abstract class RequestBody {
+
+	/** Writes a body of unknown size, see {@link RequestBody#of(BodyWriter)}. */
+	public interface BodyWriter {
+
+		/***
+		 * @param out
+		 *            - stream to the connection, must not be closed
+		 * @throws IOException
+		 */
+		void writeTo(OutputStream out) throws IOException;
+
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/** Number of bytes of the body, -1 if unknown. */
+	public abstract long contentLength();
+
+	/**
+	 * Content-Type the body must be sent with, e.g. because it names a
+	 * multipart boundary. Null to leave it to the request headers.
+	 */
+	public String contentType() {
+		return null;
+	}
+
+	/** Whether the body can be written more than once, e.g. to retry. */
+	public abstract boolean isRepeatable();
+
+	/***
+	 * Writes the body to the connection.
+	 *
+	 * @param out
+	 *            - stream to the connection, closed by the caller
+	 * @throws IOException
+	 */
+	public abstract void writeTo(OutputStream out) throws IOException;
+
+	/** UTF-8 encoded text. */
+	public static RequestBody of(final String text) {
+		return of(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/** Bytes sent as they are, the array is not copied. */
+	public static RequestBody of(final byte[] bytes) {
+		return of(bytes, 0, bytes.length);
+	}
+
+	/** A range of bytes sent as they are, the array is not copied. */
+	public static RequestBody of(final byte[] bytes, final int offset, final int length) {
+		if (offset < 0 || length < 0 || offset + length > bytes.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new BytesBody(bytes, offset, length);
+	}
+
+	/** Remaining bytes of the buffer, its position is not changed. */
+	public static RequestBody of(final ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			return of(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		}
+		return new BufferBody(buffer.duplicate());
+	}
+
+	/** File content, read in small blocks while it is sent. */
+	public static RequestBody of(final Path file) throws IOException {
+		return new FileBody(file, Files.size(file));
+	}
+
+	/** Stream of unknown length, sent chunked and read only once. */
+	public static RequestBody of(final InputStream stream) {
+		return of(stream, -1);
+	}
+
+	/***
+	 * Stream read only once.
+	 *
+	 * @param stream
+	 *            - body content, closed once written
+	 * @param length
+	 *            - number of bytes of the stream, -1 if unknown
+	 * @return RequestBody
+	 */
+	public static RequestBody of(final InputStream stream, final long length) {
+		return new StreamBody(stream, length);
+	}
+
+	/** Body produced by a callback, sent chunked. */
+	public static RequestBody of(final BodyWriter writer) {
+		return of(writer, -1);
+	}
+
+	/***
+	 * Body produced by a callback that may be called again on retry.
+	 *
+	 * @param writer
+	 *            - writes the body
+	 * @param length
+	 *            - number of bytes the writer produces, -1 if unknown
+	 * @return RequestBody
+	 */
+	public static RequestBody of(final BodyWriter writer, final long length) {
+		return new WriterBody(writer, length);
+	}
+
+	private static void copy(final InputStream in, final OutputStream out) throws IOException {
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+		}
+	}
+
+	private static final class BytesBody extends RequestBody {
+
+		private final byte[] bytes;
+
+		private final int offset;
+
+		private final int length;
+
+		private BytesBody(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public long contentLength() {
+			return length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			out.write(bytes, offset, length);
+		}
+	}
+
+	private static final class BufferBody extends RequestBody {
+
+		private final ByteBuffer buffer;
+
+		private BufferBody(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public long contentLength() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			final WritableByteChannel channel = Channels.newChannel(out);
+			final ByteBuffer source = buffer.duplicate();
+			while (source.hasRemaining()) {
+				channel.write(source);
+			}
+		}
+	}
+
+	private static final class FileBody extends RequestBody {
+
+		private final Path file;
+
+		private final long length;
+
+		private FileBody(Path file, long length) {
+			this.file = file;
+			this.length = length;
+		}
+
+		@Override
+		public long contentLength() {
+			return length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try (InputStream in = Files.newInputStream(file)) {
+				copy(in, out);
+			}
+		}
+	}
+
+	private static final class StreamBody extends RequestBody {
+
+		private final InputStream stream;
+
+		private final long length;
+
+		private StreamBody(InputStream stream, long length) {
+			this.stream = stream;
+			this.length = length;
+		}
+
+		@Override
+		public long contentLength() {
+			return length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try {
+				copy(stream, out);
+			} finally {
+				stream.close();
+			}
+		}
+	}
+
+	private static final class WriterBody extends RequestBody {
+
+		private final BodyWriter writer;
+
+		private final long length;
+
+		private WriterBody(BodyWriter writer, long length) {
+			this.writer = writer;
+			this.length = length;
+		}
+
+		@Override
+		public long contentLength() {
+			return length;
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			writer.writeTo(out);
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+package rv.httpclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import rv.httpclient.util.HttpMethod;
+import rv.httpclient.util.ResponseCode;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Single-flight layer for {@link HttpGet}, see
+ *           {@link HttpGet#setCoalescer(RequestCoalescer)}. While a request
+ *           is in flight, identical requests wait for it instead of opening
+ *           connections of their own. Each of them gets an
+ *           {@link HttpResponse} of its own sharing the buffered body, which
+ *           is copied before a caller can change it.
+ *           </p>
+ *           <p>
+ *           Requests are identical when method, URL with its query string
+ *           and the key headers match. By default every header is part of the
+ *           key, a coalescer built with header names only compares those, so
+ *           headers that differ per caller (e.g. a trace id) do not prevent
+ *           sharing. Headers that change the response, such as Authorization,
+ *           must then be listed.
+ *           </p>
+ *
+ */
+public final class RequestCoalescer {
+
+	private final ConcurrentHashMap<String, CompletableFuture<HttpResponse>> inFlight = //
+			new ConcurrentHashMap<String, CompletableFuture<HttpResponse>>();
+
+	/** Lower-case names of the key headers, null for all. */
+	private final List<String> keyHeaders;
+
+	private final LongAdder executed = new LongAdder();
+
+	private final LongAdder collapsed = new LongAdder();
+
+	/** Coalescer keyed on every request header. */
+	public RequestCoalescer() {
+		this.keyHeaders = null;
+	}
+
+	/***
+	 * Coalescer keyed on the given request headers only.
+	 *
+	 * @param keyHeaders
+	 *            - names of the headers that make requests different
+	 */
+	public RequestCoalescer(String... keyHeaders) {
+		this.keyHeaders = new ArrayList<String>(keyHeaders.length);
+		for (String name : keyHeaders) {
+			this.keyHeaders.add(name.toLowerCase(Locale.ROOT));
+		}
+	}
+
+	/** Requests that went to the network. */
+	public long getExecuted() {
+		return executed.sum();
+	}
+
+	/** Requests that were served by a call already in flight. */
+	public long getCollapsed() {
+		return collapsed.sum();
+	}
+
+	/** Number of distinct requests currently in flight. */
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	HttpResponse execute(final HttpMethod httpMethod, final String url, final Map<String, String> headers,
+			final Fetch fetch) throws HttpClientException {
+		final String key = key(httpMethod, url, headers);
+		final CompletableFuture<HttpResponse> call = new CompletableFuture<HttpResponse>();
+		final CompletableFuture<HttpResponse> existing = inFlight.putIfAbsent(key, call);
+		if (existing != null) {
+			collapsed.increment();
+			return await(existing).copy();
+		}
+		executed.increment();
+		try {
+			final HttpResponse response = fetch.fetch(headers);
+			// waiters copy a response nobody else uses, this one stays the caller's
+			call.complete(response.share());
+			return response;
+		} catch (HttpClientException | RuntimeException e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	/***
+	 * Joins a request in flight or starts it. Each caller gets a future of
+	 * its own, cancelling it does not cancel the shared call.
+	 */
+	CompletableFuture<HttpResponse> executeAsync(final HttpMethod httpMethod, final String url,
+			final Map<String, String> headers, final Supplier<CompletableFuture<HttpResponse>> start) {
+		final String key = key(httpMethod, url, headers);
+		final CompletableFuture<HttpResponse> call = new CompletableFuture<HttpResponse>();
+		final CompletableFuture<HttpResponse> existing = inFlight.putIfAbsent(key, call);
+		if (existing != null) {
+			collapsed.increment();
+			return existing.thenApply(HttpResponse::copy);
+		}
+		executed.increment();
+		start.get().whenComplete((response, failure) -> {
+			inFlight.remove(key, call);
+			if (failure != null) {
+				call.completeExceptionally(failure);
+				return;
+			}
+			try {
+				call.complete(response.share());
+			} catch (HttpClientException e) {
+				call.completeExceptionally(e);
+			}
+		});
+		return call.thenApply(HttpResponse::copy);
+	}
+
+	private String key(final HttpMethod httpMethod, final String url, final Map<String, String> headers) {
+		final StringBuilder sb = new StringBuilder(url.length() + 64);
+		sb.append(httpMethod).append(' ').append(url);
+		if (headers != null && !headers.isEmpty()) {
+			final TreeMap<String, String> sorted = new TreeMap<String, String>();
+			for (Entry<String, String> header : headers.entrySet()) {
+				if (header.getKey() != null) {
+					final String name = header.getKey().toLowerCase(Locale.ROOT);
+					if (keyHeaders == null || keyHeaders.contains(name)) {
+						sorted.put(name, header.getValue());
+					}
+				}
+			}
+			for (Entry<String, String> header : sorted.entrySet()) {
+				sb.append('\n').append(header.getKey()).append(':').append(header.getValue());
+			}
+		}
+		return sb.toString();
+	}
+
+	private static HttpResponse await(final CompletableFuture<HttpResponse> call) throws HttpClientException {
+		try {
+			return call.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Interrupted while waiting for the HttpRequest.",
+					e);
+		} catch (CancellationException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "HttpRequest was aborted.", e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof HttpClientException) {
+				throw (HttpClientException) cause;
+			}
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, "Failed to execute HttpRequest.", cause);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RequestCoalescer [inFlight=%s, executed=%s, collapsed=%s]", getInFlight(),
+				getExecuted(), getCollapsed());
+	}
+
+}
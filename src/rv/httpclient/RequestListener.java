@@ -0,0 +1,22 @@
+package rv.httpclient;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Receives the timings of every request attempt, see
+ *           {@link HttpClientConfig#addRequestListener(RequestListener)}.
+ *           Called on the thread that ran the attempt once it completed or
+ *           failed, so implementations must be quick and thread safe.
+ *           {@link HttpMetrics} is the built-in one.
+ *           </p>
+ *
+ */
+public interface RequestListener {
+
+	void onRequest(RequestTimings timings);
+
+}
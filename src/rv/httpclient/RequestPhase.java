@@ -0,0 +1,40 @@
+package rv.httpclient;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Phases of a request timed by {@link RequestTimings}. DNS, CONNECT
+ *           and TLS are reported by transports that do this work themselves
+ *           and only for new connections, HttpURLConnection counts them as
+ *           part of SEND.
+ *           </p>
+ *
+ */
+public enum RequestPhase {
+
+	/** Resolving the host name. */
+	DNS,
+
+	/** Opening the TCP connection. */
+	CONNECT,
+
+	/** TLS handshake. */
+	TLS,
+
+	/** From the start of the attempt until the request was handed to the transport. */
+	SEND,
+
+	/** From then until the response head arrived, the time to first byte. */
+	WAIT,
+
+	/** Reading the response body, not timed for streaming responses. */
+	RECEIVE,
+
+	/** The whole attempt. */
+	TOTAL
+
+}
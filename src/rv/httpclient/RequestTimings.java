@@ -0,0 +1,112 @@
+package rv.httpclient;
+
+import java.net.URL;
+import java.util.Arrays;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Timings of one request attempt, handed to the
+ *           {@link RequestListener}s once the attempt completed. Retries and
+ *           hedges are attempts of their own.
+ *           </p>
+ *
+ */
+public final class RequestTimings {
+
+	private static final RequestPhase[] PHASES = RequestPhase.values();
+
+	private final HttpMethod httpMethod;
+
+	private final String host;
+
+	private final long start;
+
+	private final long[] nanos = new long[PHASES.length];
+
+	private long sent;
+
+	private long head;
+
+	private int responseCode = -1;
+
+	private HttpClientException exception;
+
+	RequestTimings(HttpMethod httpMethod, URL target) {
+		this.httpMethod = httpMethod == null ? HttpMethod.GET : httpMethod;
+		this.host = ConnectionPool.Route.of(target).toString();
+		Arrays.fill(nanos, -1);
+		this.start = System.nanoTime();
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	/** Scheme, host and port of the request. */
+	public String getHost() {
+		return host;
+	}
+
+	/** Response code, -1 if the attempt failed. */
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	/** Reason the attempt failed, null if a response was returned. */
+	public HttpClientException getException() {
+		return exception;
+	}
+
+	/** Duration of a phase in nanoseconds, -1 if it was not timed. */
+	public long getNanos(final RequestPhase phase) {
+		return nanos[phase.ordinal()];
+	}
+
+	/** Request handed to the transport, the head is waited for next. */
+	void sent() {
+		if (sent == 0) {
+			sent = System.nanoTime();
+			nanos[RequestPhase.SEND.ordinal()] = sent - start;
+		}
+	}
+
+	/** Response head received. */
+	void head(final Exchange exchange) {
+		head = System.nanoTime();
+		nanos[RequestPhase.WAIT.ordinal()] = head - sent;
+		for (RequestPhase phase : new RequestPhase[] { RequestPhase.DNS, RequestPhase.CONNECT, RequestPhase.TLS }) {
+			nanos[phase.ordinal()] = exchange.getPhaseNanos(phase);
+		}
+	}
+
+	/** Response body read in full. */
+	void received() {
+		nanos[RequestPhase.RECEIVE.ordinal()] = System.nanoTime() - head;
+	}
+
+	void complete(final HttpResponse response, final HttpClientException exception) {
+		nanos[RequestPhase.TOTAL.ordinal()] = System.nanoTime() - start;
+		this.responseCode = response != null ? response.getResponseCode() : -1;
+		this.exception = exception;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("RequestTimings [").append(httpMethod).append(' ').append(host)
+				.append(", responseCode=").append(responseCode);
+		for (RequestPhase phase : PHASES) {
+			if (nanos[phase.ordinal()] >= 0) {
+				sb.append(", ").append(phase).append('=').append(nanos[phase.ordinal()] / 1000).append("us");
+			}
+		}
+		return sb.append(']').toString();
+	}
+
+}
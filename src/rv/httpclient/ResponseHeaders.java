@@ -0,0 +1,393 @@
+package rv.httpclient;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import rv.httpclient.util.HttpHeader;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Immutable response headers kept as flat arrays of names and
+ *           values in the order they were received. Lookups ignore the case
+ *           of the name and do not allocate. Content-Length and Cache-Control
+ *           are only parsed when asked for, once. Common header names are
+ *           shared instances, transports can resolve them without creating a
+ *           string per header.
+ *           </p>
+ *           <p>
+ *           The headers are also a read-only
+ *           {@code Map<String, List<String>>} like
+ *           {@link java.net.HttpURLConnection#getHeaderFields()}, with the
+ *           status line under the null key. Its {@link #get(Object)} and
+ *           {@link #containsKey(Object)} ignore case as well, the grouped
+ *           entries are only built when the map is iterated.
+ *           </p>
+ *
+ */
+public final class ResponseHeaders extends AbstractMap<String, List<String>> {
+
+	public static final ResponseHeaders EMPTY = new ResponseHeaders(null, new String[0], new String[0], 0);
+
+	private static final String[] COMMON_NAMES = { "Accept-Ranges", "Access-Control-Allow-Origin", "Age",
+			"Cache-Control", "Connection", "Content-Disposition", "Content-Encoding", "Content-Language",
+			"Content-Length", "Content-Location", "Content-Range", "Content-Security-Policy", "Content-Type", "Date",
+			"ETag", "Expires", "Keep-Alive", "Last-Modified", "Link", "Location", "Pragma", "Retry-After", "Server",
+			"Set-Cookie", "Strict-Transport-Security", "Trailer", "Transfer-Encoding", "Vary", "Via",
+			"WWW-Authenticate", "X-Content-Type-Options", "X-Frame-Options", "X-Powered-By", "X-Request-Id" };
+
+	/** Common names by length, then by first letter in lower case. */
+	private static final String[][][] NAMES_BY_LENGTH;
+
+	static {
+		int longest = 0;
+		for (String name : COMMON_NAMES) {
+			longest = Math.max(longest, name.length());
+		}
+		NAMES_BY_LENGTH = new String[longest + 1][][];
+		for (String name : COMMON_NAMES) {
+			String[][] byLetter = NAMES_BY_LENGTH[name.length()];
+			if (byLetter == null) {
+				byLetter = new String[26][];
+				NAMES_BY_LENGTH[name.length()] = byLetter;
+			}
+			final int letter = Character.toLowerCase(name.charAt(0)) - 'a';
+			final String[] names = byLetter[letter];
+			if (names == null) {
+				byLetter[letter] = new String[] { name };
+			} else {
+				final String[] grown = new String[names.length + 1];
+				System.arraycopy(names, 0, grown, 0, names.length);
+				grown[names.length] = name;
+				byLetter[letter] = grown;
+			}
+		}
+	}
+
+	private final String statusLine;
+
+	private final String[] names;
+
+	private final String[] values;
+
+	private final int size;
+
+	/** -2 until parsed. */
+	private volatile long contentLength = -2;
+
+	private volatile Map<String, String> cacheControl;
+
+	private volatile Set<Map.Entry<String, List<String>>> entries;
+
+	private ResponseHeaders(String statusLine, String[] names, String[] values, int size) {
+		this.statusLine = statusLine;
+		this.names = names;
+		this.values = values;
+		this.size = size;
+	}
+
+	/***
+	 * Headers from arrays filled by a transport, which are not copied and
+	 * must not be changed afterwards.
+	 *
+	 * @param statusLine
+	 *            - status line of the response, may be null
+	 * @param names
+	 *            - header names, the first size entries are used
+	 * @param values
+	 *            - header values in the same order
+	 * @param size
+	 *            - number of headers
+	 * @return ResponseHeaders
+	 */
+	public static ResponseHeaders of(final String statusLine, final String[] names, final String[] values,
+			final int size) {
+		if (size < 0 || size > names.length || size > values.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new ResponseHeaders(statusLine, names, values, size);
+	}
+
+	/** Headers of a map as returned by HttpURLConnection, the map itself if it is ResponseHeaders. */
+	public static ResponseHeaders of(final Map<String, List<String>> headers) {
+		if (headers instanceof ResponseHeaders) {
+			return (ResponseHeaders) headers;
+		}
+		if (headers == null || headers.isEmpty()) {
+			return EMPTY;
+		}
+		int count = 0;
+		for (List<String> list : headers.values()) {
+			count += list != null ? list.size() : 0;
+		}
+		final String[] names = new String[count];
+		final String[] values = new String[count];
+		String statusLine = null;
+		int size = 0;
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			if (entry.getValue() == null) {
+				continue;
+			}
+			if (entry.getKey() == null) {
+				statusLine = entry.getValue().isEmpty() ? null : entry.getValue().get(0);
+				continue;
+			}
+			final String name = canonicalName(entry.getKey(), 0, entry.getKey().length());
+			for (String value : entry.getValue()) {
+				if (value != null) {
+					names[size] = name;
+					values[size] = value;
+					size++;
+				}
+			}
+		}
+		return new ResponseHeaders(statusLine, names, values, size);
+	}
+
+	/***
+	 * Name of a header in a buffer, the shared instance if it is a common one.
+	 *
+	 * @param text
+	 *            - buffer holding the name
+	 * @param start
+	 *            - index of the first character
+	 * @param end
+	 *            - index after the last character
+	 * @return name
+	 */
+	public static String canonicalName(final CharSequence text, final int start, final int end) {
+		final int length = end - start;
+		if (length > 0 && length < NAMES_BY_LENGTH.length && NAMES_BY_LENGTH[length] != null) {
+			final int letter = Character.toLowerCase(text.charAt(start)) - 'a';
+			if (letter >= 0 && letter < 26 && NAMES_BY_LENGTH[length][letter] != null) {
+				for (String name : NAMES_BY_LENGTH[length][letter]) {
+					if (regionMatches(text, start, name)) {
+						return name;
+					}
+				}
+			}
+		}
+		return text.subSequence(start, end).toString();
+	}
+
+	private static boolean regionMatches(final CharSequence text, final int start, final String name) {
+		for (int i = 0; i < name.length(); i++) {
+			final char a = text.charAt(start + i);
+			final char b = name.charAt(i);
+			if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Status line of the response, null if not known. */
+	public String getStatusLine() {
+		return statusLine;
+	}
+
+	/** Number of header lines, a name repeated counts once per line. */
+	public int count() {
+		return size;
+	}
+
+	public String getName(final int index) {
+		checkIndex(index);
+		return names[index];
+	}
+
+	public String getValue(final int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	/** First value of a header, null if absent. */
+	public String getFirst(final String name) {
+		final int i = indexOf(name, 0);
+		return i >= 0 ? values[i] : null;
+	}
+
+	public String getFirst(final HttpHeader name) {
+		return getFirst(name.get());
+	}
+
+	/** All values of a header in order, empty if absent. */
+	public List<String> getAll(final String name) {
+		int i = indexOf(name, 0);
+		if (i < 0) {
+			return Collections.emptyList();
+		}
+		final int next = indexOf(name, i + 1);
+		if (next < 0) {
+			return Collections.singletonList(values[i]);
+		}
+		final List<String> all = new ArrayList<String>(2);
+		for (; i >= 0; i = indexOf(name, i + 1)) {
+			all.add(values[i]);
+		}
+		return Collections.unmodifiableList(all);
+	}
+
+	/** All values of a header joined by commas, null if absent. */
+	public String getJoined(final String name) {
+		int i = indexOf(name, 0);
+		if (i < 0) {
+			return null;
+		}
+		int next = indexOf(name, i + 1);
+		if (next < 0) {
+			return values[i];
+		}
+		final StringBuilder sb = new StringBuilder(values[i]);
+		for (; next >= 0; next = indexOf(name, next + 1)) {
+			sb.append(',').append(values[next]);
+		}
+		return sb.toString();
+	}
+
+	/** Whether the header is present, in any case. */
+	public boolean contains(final String name) {
+		return indexOf(name, 0) >= 0;
+	}
+
+	/** Content-Length, -1 if absent or malformed. */
+	public long getContentLength() {
+		long length = contentLength;
+		if (length == -2) {
+			length = -1;
+			final String value = getFirst("Content-Length");
+			if (value != null) {
+				try {
+					length = Math.max(-1, Long.parseLong(value.trim()));
+				} catch (NumberFormatException e) {
+					length = -1;
+				}
+			}
+			contentLength = length;
+		}
+		return length;
+	}
+
+	/***
+	 * Date header such as Date, Expires or Last-Modified.
+	 *
+	 * @param name
+	 *            - name of the header
+	 * @return milliseconds since the epoch, -1 if absent or malformed
+	 */
+	public long getDate(final String name) {
+		final String value = getFirst(name);
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Cache-Control directives by lower case name, with quotes removed from
+	 * the values and an empty value for directives without one.
+	 */
+	public Map<String, String> getCacheControl() {
+		Map<String, String> directives = cacheControl;
+		if (directives == null) {
+			directives = directives(getJoined("Cache-Control"));
+			cacheControl = directives;
+		}
+		return directives;
+	}
+
+	static Map<String, String> directives(final String cacheControl) {
+		if (cacheControl == null || cacheControl.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final Map<String, String> directives = new HashMap<String, String>();
+		for (String directive : cacheControl.split(",")) {
+			final int eq = directive.indexOf('=');
+			final String name = (eq >= 0 ? directive.substring(0, eq) : directive).trim().toLowerCase(Locale.ROOT);
+			if (!name.isEmpty()) {
+				directives.put(name, eq >= 0 ? directive.substring(eq + 1).trim().replace("\"", "") : "");
+			}
+		}
+		return Collections.unmodifiableMap(directives);
+	}
+
+	private int indexOf(final String name, final int from) {
+		if (name == null) {
+			return -1;
+		}
+		for (int i = from; i < size; i++) {
+			final String n = names[i];
+			// shared names of common headers usually match by reference
+			if (n == name || n.equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + ", count " + size);
+		}
+	}
+
+	@Override
+	public List<String> get(final Object key) {
+		if (key == null) {
+			return statusLine != null ? Collections.singletonList(statusLine) : null;
+		}
+		if (!(key instanceof String)) {
+			return null;
+		}
+		final List<String> all = getAll((String) key);
+		return all.isEmpty() ? null : all;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key == null ? statusLine != null : key instanceof String && contains((String) key);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0 && statusLine == null;
+	}
+
+	@Override
+	public Set<Map.Entry<String, List<String>>> entrySet() {
+		Set<Map.Entry<String, List<String>>> entries = this.entries;
+		if (entries == null) {
+			final Map<String, List<String>> grouped = new LinkedHashMap<String, List<String>>();
+			if (statusLine != null) {
+				grouped.put(null, Collections.singletonList(statusLine));
+			}
+			for (int i = 0; i < size; i++) {
+				if (indexOf(names[i], 0) == i) {
+					grouped.put(names[i], getAll(names[i]));
+				}
+			}
+			entries = Collections.unmodifiableMap(grouped).entrySet();
+			this.entries = entries;
+		}
+		return entries;
+	}
+
+}
@@ -0,0 +1,283 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import rv.httpclient.util.HttpHeader;
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Decides whether a failed request is sent again and how long to
+ *           wait before it, see {@code setRetryPolicy} of the handlers. A
+ *           request is retried when it could not connect, when the connection
+ *           failed, or when the server answered 429, 502, 503 or 504.
+ *           </p>
+ *           <p>
+ *           Only GET, HEAD, OPTIONS, PUT and DELETE are retried after the
+ *           request may have reached the server, unless
+ *           {@link #setRetryNonIdempotent(boolean)} is set. A request whose
+ *           body cannot be written twice is never retried.
+ *           </p>
+ *           <p>
+ *           Delays grow with decorrelated jitter, each one is drawn between
+ *           the base delay and three times the previous one. A Retry-After
+ *           header of the response replaces the delay. Retries are paid from a
+ *           budget shared by all requests using the policy: every request adds
+ *           a fraction of a retry to it, so during an outage retries only add
+ *           that fraction to the load instead of multiplying it.
+ *           </p>
+ *           <p>
+ *           A policy is thread safe and meant to be shared.
+ *           </p>
+ *
+ */
+public final class RetryPolicy {
+
+	/** Budget in thousandths of a retry. */
+	private static final long UNIT = 1000;
+
+	private volatile int maxAttempts = 3;
+
+	private volatile long baseDelay = 100;
+
+	private volatile long maxDelay = 10000;
+
+	private volatile boolean retryNonIdempotent;
+
+	private volatile int[] retryStatuses = { 429, 502, 503, 504 };
+
+	private volatile long budgetRatio = 100;
+
+	private volatile long budgetReserve = 10 * UNIT;
+
+	private final AtomicLong budget = new AtomicLong(budgetReserve);
+
+	private final LongAdder retries = new LongAdder();
+
+	private final LongAdder budgetExhausted = new LongAdder();
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Set the number of times a request is sent at most, the first attempt
+	 * included. Defaults to 3.
+	 *
+	 * @param maxAttempts
+	 *            - attempts per request, 1 disables retries
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = Math.max(1, maxAttempts);
+	}
+
+	public long getBaseDelay() {
+		return baseDelay;
+	}
+
+	/**
+	 * Set the shortest delay in milliseconds before a retry. Defaults to 100.
+	 *
+	 * @param baseDelay
+	 *            - delay in milliseconds
+	 */
+	public void setBaseDelay(long baseDelay) {
+		this.baseDelay = Math.max(0, baseDelay);
+	}
+
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * Set the longest delay in milliseconds before a retry. A response asking
+	 * to wait longer with Retry-After is returned as it is. Defaults to 10
+	 * seconds.
+	 *
+	 * @param maxDelay
+	 *            - delay in milliseconds
+	 */
+	public void setMaxDelay(long maxDelay) {
+		this.maxDelay = Math.max(0, maxDelay);
+	}
+
+	public boolean isRetryNonIdempotent() {
+		return retryNonIdempotent;
+	}
+
+	/**
+	 * Retry POST requests as well. Only safe when the server deduplicates
+	 * them, e.g. by an idempotency key header.
+	 *
+	 * @param retryNonIdempotent
+	 *            - true to retry every method
+	 */
+	public void setRetryNonIdempotent(boolean retryNonIdempotent) {
+		this.retryNonIdempotent = retryNonIdempotent;
+	}
+
+	/**
+	 * Set the response codes that are retried, 429, 502, 503 and 504 by
+	 * default.
+	 *
+	 * @param statuses
+	 *            - HTTP response codes
+	 */
+	public void setRetryStatuses(int... statuses) {
+		this.retryStatuses = statuses.clone();
+	}
+
+	/**
+	 * Set the size of the retry budget. Every request adds the given ratio of
+	 * a retry to the budget, up to the reserve, and every retry takes one.
+	 * Defaults to 0.1 and 10, i.e. retries add at most a tenth to the load
+	 * once a burst of 10 is spent.
+	 *
+	 * @param ratio
+	 *            - retries earned per request
+	 * @param reserve
+	 *            - retries that can be saved up
+	 */
+	public void setBudget(double ratio, int reserve) {
+		this.budgetRatio = Math.max(0, Math.round(ratio * UNIT));
+		this.budgetReserve = Math.max(0, reserve) * UNIT;
+		budget.set(this.budgetReserve);
+	}
+
+	/** Number of retries sent. */
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	/** Number of retries skipped because the budget was spent. */
+	public long getBudgetExhausted() {
+		return budgetExhausted.sum();
+	}
+
+	/** Records a new request, it earns its share of the budget. */
+	void request() {
+		final long reserve = budgetReserve;
+		long current;
+		do {
+			current = budget.get();
+			if (current >= reserve) {
+				return;
+			}
+		} while (!budget.compareAndSet(current, Math.min(reserve, current + budgetRatio)));
+	}
+
+	/***
+	 * Delay before the next attempt of a failed request.
+	 *
+	 * @param httpMethod
+	 *            - method of the request
+	 * @param requestBody
+	 *            - body of the request, may be null
+	 * @param attempt
+	 *            - number of the attempt that failed, starting at 1
+	 * @param previousDelay
+	 *            - delay before the failed attempt, 0 for the first one
+	 * @param response
+	 *            - response of the failed attempt, null if it threw
+	 * @param failure
+	 *            - exception of the failed attempt, null if it returned
+	 * @return delay in milliseconds, -1 to not retry
+	 */
+	long delay(final HttpMethod httpMethod, final RequestBody requestBody, final int attempt,
+			final long previousDelay, final HttpResponse response, final HttpClientException failure) {
+		if (attempt >= maxAttempts || requestBody != null && !requestBody.isRepeatable()) {
+			return -1;
+		}
+		final boolean idempotent = retryNonIdempotent || isIdempotent(httpMethod);
+		long delay = backoff(previousDelay);
+		if (failure != null) {
+			final Throwable cause = failure.getCause();
+			if (cause instanceof ConnectException || cause instanceof NoRouteToHostException) {
+				// nothing was sent, retrying is safe for any method
+			} else if (!(cause instanceof IOException) || !idempotent) {
+				return -1;
+			}
+		} else if (response == null || !idempotent || !isRetryStatus(response.getResponseCode())) {
+			return -1;
+		} else {
+			final long retryAfter = retryAfter(response.getHeaders());
+			if (retryAfter > maxDelay) {
+				return -1;
+			}
+			if (retryAfter >= 0) {
+				delay = retryAfter;
+			}
+		}
+		if (!withdraw()) {
+			budgetExhausted.increment();
+			return -1;
+		}
+		retries.increment();
+		return delay;
+	}
+
+	private boolean withdraw() {
+		long current;
+		do {
+			current = budget.get();
+			if (current < UNIT) {
+				return false;
+			}
+		} while (!budget.compareAndSet(current, current - UNIT));
+		return true;
+	}
+
+	/** Decorrelated jitter, a random delay between base and three times the last. */
+	private long backoff(final long previousDelay) {
+		final long base = baseDelay;
+		final long upper = Math.min(maxDelay, Math.max(base, previousDelay) * 3);
+		if (upper <= base) {
+			return Math.min(base, maxDelay);
+		}
+		return ThreadLocalRandom.current().nextLong(base, upper + 1);
+	}
+
+	private boolean isRetryStatus(final int status) {
+		for (int retryStatus : retryStatuses) {
+			if (retryStatus == status) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isIdempotent(final HttpMethod httpMethod) {
+		return httpMethod != HttpMethod.POST;
+	}
+
+	/** Retry-After in milliseconds, either delay seconds or a date, -1 if absent. */
+	private static long retryAfter(final ResponseHeaders headers) {
+		final String value = headers.getFirst(HttpHeader.RETRY_AFTER);
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return Math.max(0, Long.parseLong(value.trim())) * 1000;
+		} catch (NumberFormatException e) {
+			final long date = headers.getDate(HttpHeader.RETRY_AFTER.get());
+			return date >= 0 ? Math.max(0, date - System.currentTimeMillis()) : -1;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RetryPolicy [maxAttempts=%s, baseDelay=%s, maxDelay=%s, retries=%s, budgetExhausted=%s]",
+				maxAttempts, baseDelay, maxDelay, getRetries(), getBudgetExhausted());
+	}
+
+}
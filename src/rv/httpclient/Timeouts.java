@@ -0,0 +1,92 @@
+package rv.httpclient;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Time limits of a request in milliseconds, 0 meaning no limit. The
+ *           connect timeout bounds opening a connection, the read timeout the
+ *           time without any byte received from the server, and the request
+ *           timeout the whole call: connect, send, response head and body,
+ *           retries and hedges included. A streamed body is covered by the
+ *           read timeout only once the response is returned.
+ *           </p>
+ *           <p>
+ *           A request that runs out of time fails with an
+ *           {@link HttpClientException} of code
+ *           {@link rv.httpclient.util.ResponseCode#TIMEOUT}.
+ *           </p>
+ *
+ */
+public final class Timeouts {
+
+	/** 10 seconds to connect, 60 seconds to read, no request timeout. */
+	public static final Timeouts DEFAULT = new Timeouts(10000, 60000, 0);
+
+	/** No limits, requests may block for ever. */
+	public static final Timeouts NONE = new Timeouts(0, 0, 0);
+
+	private final int connectTimeout;
+
+	private final int readTimeout;
+
+	private final long requestTimeout;
+
+	private Timeouts(int connectTimeout, int readTimeout, long requestTimeout) {
+		this.connectTimeout = Math.max(0, connectTimeout);
+		this.readTimeout = Math.max(0, readTimeout);
+		this.requestTimeout = Math.max(0, requestTimeout);
+	}
+
+	/***
+	 * Time limits in milliseconds, 0 for no limit.
+	 *
+	 * @param connectTimeout
+	 *            - time to open a connection
+	 * @param readTimeout
+	 *            - time to wait for the next byte of the response
+	 * @param requestTimeout
+	 *            - time for the whole request
+	 * @return Timeouts
+	 */
+	public static Timeouts of(int connectTimeout, int readTimeout, long requestTimeout) {
+		return new Timeouts(connectTimeout, readTimeout, requestTimeout);
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public long getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	/** Copy with a different connect timeout. */
+	public Timeouts withConnectTimeout(int connectTimeout) {
+		return new Timeouts(connectTimeout, readTimeout, requestTimeout);
+	}
+
+	/** Copy with a different read timeout. */
+	public Timeouts withReadTimeout(int readTimeout) {
+		return new Timeouts(connectTimeout, readTimeout, requestTimeout);
+	}
+
+	/** Copy with a different request timeout. */
+	public Timeouts withRequestTimeout(long requestTimeout) {
+		return new Timeouts(connectTimeout, readTimeout, requestTimeout);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Timeouts [connectTimeout=%s, readTimeout=%s, requestTimeout=%s]", connectTimeout,
+				readTimeout, requestTimeout);
+	}
+
+}
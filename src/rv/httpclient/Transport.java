@@ -0,0 +1,48 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.net.URL;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Engine carrying requests to the server on behalf of
+ *           {@link HttpConnection}. The engine is selected through
+ *           {@link HttpClientConfig#setTransport(Transport)}.
+ *           </p>
+ *
+ */
+public interface Transport {
+
+	/***
+	 * Starts a new request/response exchange.
+	 *
+	 * @param url
+	 *            - target of the request
+	 * @param httpMethod
+	 *            - http method to use for communication
+	 * @param idle
+	 *            - idle pooled connection to the same route, or null to open a
+	 *            new one
+	 * @return exchange to write the request to and read the response from
+	 * @throws IOException
+	 */
+	Exchange open(URL url, HttpMethod httpMethod, PooledConnection idle) throws IOException;
+
+	/**
+	 * Whether the engine carries concurrent requests to a host over
+	 * connections it manages itself. Requests then take no lease of the
+	 * {@link ConnectionPool} and {@link #open(URL, HttpMethod, PooledConnection)}
+	 * is always given a null idle connection.
+	 */
+	default boolean isMultiplexed() {
+		return false;
+	}
+
+}
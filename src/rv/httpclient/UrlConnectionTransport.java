@@ -0,0 +1,156 @@
+package rv.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Default {@link Transport} backed by
+ *           {@link java.net.HttpURLConnection}.
+ *           </p>
+ *           <p>
+ *           HttpURLConnection owns its sockets, a pooled entry only stands
+ *           for the socket parked in the JVM keep-alive cache. It also
+ *           resolves host names itself through the JVM address cache, a
+ *           {@link DnsResolver} is not consulted.
+ *           </p>
+ *
+ */
+public final class UrlConnectionTransport implements Transport {
+
+	public static final UrlConnectionTransport INSTANCE = new UrlConnectionTransport();
+
+	private static final PooledConnection KEEP_ALIVE = new PooledConnection() {
+
+		@Override
+		public boolean isStale() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+			// the JVM keep-alive cache closes the socket on its own timeout
+		}
+	};
+
+	private UrlConnectionTransport() {
+
+	}
+
+	@Override
+	public Exchange open(final URL url, final HttpMethod httpMethod, final PooledConnection idle) throws IOException {
+		if (idle != null && idle != KEEP_ALIVE) {
+			idle.close();
+		}
+		final HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+		conn.setDoInput(true);
+		conn.setDoOutput(true);
+		conn.setRequestMethod(httpMethod == null ? HttpMethod.GET.toString() : httpMethod.toString());
+		return new UrlConnectionExchange(conn);
+	}
+
+	private static final class UrlConnectionExchange implements Exchange {
+
+		private final HttpURLConnection conn;
+
+		private UrlConnectionExchange(HttpURLConnection conn) {
+			this.conn = conn;
+		}
+
+		@Override
+		public void setRequestHeader(String key, String value) {
+			conn.setRequestProperty(key, value);
+		}
+
+		@Override
+		public void setTimeouts(int connectTimeout, int readTimeout) {
+			conn.setConnectTimeout(connectTimeout);
+			conn.setReadTimeout(readTimeout);
+		}
+
+		@Override
+		public void setContentLength(long length) {
+			if (length >= 0) {
+				conn.setFixedLengthStreamingMode(length);
+			} else {
+				conn.setChunkedStreamingMode(0);
+			}
+		}
+
+		@Override
+		public OutputStream getRequestBody() throws IOException {
+			return conn.getOutputStream();
+		}
+
+		@Override
+		public int getResponseCode() throws IOException {
+			return conn.getResponseCode();
+		}
+
+		@Override
+		public String getResponseMessage() throws IOException {
+			return conn.getResponseMessage();
+		}
+
+		@Override
+		public Map<String, List<String>> getResponseHeaders() throws IOException {
+			if (conn.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
+				// indexed access goes through getInputStream, which throws on error responses
+				return ResponseHeaders.of(conn.getHeaderFields());
+			}
+			// indexed access skips the map HttpURLConnection builds on every call
+			String[] names = new String[16];
+			String[] values = new String[16];
+			int size = 0;
+			final String statusLine = conn.getHeaderFieldKey(0) == null ? conn.getHeaderField(0) : null;
+			for (int i = statusLine != null ? 1 : 0;; i++) {
+				final String name = conn.getHeaderFieldKey(i);
+				final String value = conn.getHeaderField(i);
+				if (name == null && value == null) {
+					break;
+				}
+				if (name == null || value == null) {
+					continue;
+				}
+				if (size == names.length) {
+					names = Arrays.copyOf(names, size * 2);
+					values = Arrays.copyOf(values, size * 2);
+				}
+				names[size] = ResponseHeaders.canonicalName(name, 0, name.length());
+				values[size] = value;
+				size++;
+			}
+			return ResponseHeaders.of(statusLine, names, values, size);
+		}
+
+		@Override
+		public InputStream getResponseBody() throws IOException {
+			return conn.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST ? conn.getInputStream()
+					: conn.getErrorStream();
+		}
+
+		@Override
+		public PooledConnection detach() {
+			return KEEP_ALIVE;
+		}
+
+		@Override
+		public void close() {
+			conn.disconnect();
+		}
+	}
+
+}
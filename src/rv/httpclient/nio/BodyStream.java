@@ -0,0 +1,171 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Response body handed from the event loop to the reading thread as
+ *           a queue of pooled buffers. The loop stops reading from the socket
+ *           while the queue is full and resumes once the reader caught up.
+ *           </p>
+ *
+ */
+final class BodyStream extends InputStream {
+
+	static final int HIGH_WATER = 16;
+
+	static final int LOW_WATER = 4;
+
+	private final NioExchange exchange;
+
+	private final BufferPool buffers;
+
+	private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<ByteBuffer>();
+
+	private ByteBuffer current;
+
+	private boolean done;
+
+	private boolean closed;
+
+	private IOException failure;
+
+	/** Milliseconds a read waits for data, 0 for ever. */
+	private final int readTimeout;
+
+	BodyStream(NioExchange exchange, BufferPool buffers, int readTimeout) {
+		this.exchange = exchange;
+		this.buffers = buffers;
+		this.readTimeout = readTimeout;
+	}
+
+	synchronized void offer(final ByteBuffer buffer) {
+		if (closed) {
+			buffers.release(buffer);
+		} else {
+			queue.offer(buffer);
+			notifyAll();
+		}
+	}
+
+	synchronized boolean isFull() {
+		return queue.size() >= HIGH_WATER;
+	}
+
+	synchronized void complete() {
+		done = true;
+		notifyAll();
+	}
+
+	synchronized void fail(final IOException e) {
+		if (!done) {
+			failure = e;
+			notifyAll();
+		}
+	}
+
+	/** Whether every byte of the body was received. */
+	synchronized boolean isComplete() {
+		return done;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final byte[] b = new byte[1];
+		return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+	}
+
+	@Override
+	public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		long deadline = 0;
+		while (true) {
+			if (closed) {
+				throw new IOException("Stream closed.");
+			}
+			if (current != null && current.hasRemaining()) {
+				final int n = Math.min(len, current.remaining());
+				current.get(b, off, n);
+				return n;
+			}
+			if (current != null) {
+				buffers.release(current);
+				current = null;
+			}
+			current = queue.poll();
+			if (current != null) {
+				if (queue.size() == LOW_WATER) {
+					exchange.resume();
+				}
+				continue;
+			}
+			if (failure != null) {
+				throw new IOException(failure.getMessage(), failure);
+			}
+			if (done) {
+				return -1;
+			}
+			try {
+				if (readTimeout == 0) {
+					wait();
+				} else {
+					final long now = System.nanoTime();
+					if (deadline == 0) {
+						deadline = now + TimeUnit.MILLISECONDS.toNanos(readTimeout);
+					} else if (now - deadline >= 0) {
+						throw new SocketTimeoutException("Read timed out");
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, deadline - now);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while reading the response body.");
+			}
+		}
+	}
+
+	@Override
+	public synchronized int available() {
+		return current != null ? current.remaining() : 0;
+	}
+
+	/**
+	 * Closing before the end of the body leaves the connection out of sync,
+	 * it is closed as well.
+	 */
+	@Override
+	public void close() {
+		final boolean complete;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			complete = done;
+			buffers.release(current);
+			current = null;
+			ByteBuffer buffer;
+			while ((buffer = queue.poll()) != null) {
+				buffers.release(buffer);
+			}
+			notifyAll();
+		}
+		if (!complete) {
+			exchange.close();
+		}
+	}
+
+}
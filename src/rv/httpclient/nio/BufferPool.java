@@ -0,0 +1,58 @@
+package rv.httpclient.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Recycles fixed size byte buffers between exchanges so that
+ *           reading a response does not allocate per read.
+ *           </p>
+ *
+ */
+final class BufferPool {
+
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final int bufferSize;
+
+	private final int maxPooled;
+
+	private final boolean direct;
+
+	BufferPool(int bufferSize, int maxPooled, boolean direct) {
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+		this.direct = direct;
+	}
+
+	ByteBuffer acquire() {
+		final ByteBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+		}
+		size.decrementAndGet();
+		return buffer;
+	}
+
+	void release(final ByteBuffer buffer) {
+		if (buffer == null || buffer.capacity() != bufferSize) {
+			return;
+		}
+		if (size.incrementAndGet() <= maxPooled) {
+			buffer.clear();
+			buffers.offer(buffer);
+		} else {
+			size.decrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import rv.httpclient.PooledConnection;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Keep-alive socket channel bound to one event loop.
+ *           </p>
+ *
+ */
+final class NioConnection implements PooledConnection {
+
+	final SocketChannel channel;
+
+	final NioEventLoop loop;
+
+	/** Assigned by the event loop on first registration. */
+	volatile SelectionKey key;
+
+	NioConnection(SocketChannel channel, NioEventLoop loop) {
+		this.channel = channel;
+		this.loop = loop;
+	}
+
+	/**
+	 * An idle connection must have nothing to read, end of stream means the
+	 * server closed it and unexpected bytes mean it is out of sync.
+	 */
+	@Override
+	public boolean isStale() {
+		if (!channel.isOpen()) {
+			return true;
+		}
+		try {
+			return channel.read(ByteBuffer.allocate(1)) != 0;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// nothing left to release
+		}
+		loop.wakeup();
+	}
+
+}
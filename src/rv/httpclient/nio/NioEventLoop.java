@@ -0,0 +1,163 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Selector thread multiplexing the socket channels of many
+ *           exchanges. Channel registration and interest changes are handed to
+ *           the loop as tasks so that only this thread touches its keys.
+ *           Timers run on the loop as well, the selector wakes up for the
+ *           first one due.
+ *           </p>
+ *
+ */
+final class NioEventLoop implements Runnable {
+
+	/** Callback of a channel registered with the loop. */
+	interface Handler {
+
+		void ready(SelectionKey key);
+
+	}
+
+	private final Selector selector;
+
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+	/** Only touched by the loop thread. */
+	private final PriorityQueue<Timer> timers = new PriorityQueue<Timer>();
+
+	private final Thread thread;
+
+	private volatile boolean running = true;
+
+	NioEventLoop(String name) throws IOException {
+		this.selector = Selector.open();
+		this.thread = new Thread(this, name);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	void execute(final Runnable task) {
+		tasks.offer(task);
+		if (Thread.currentThread() != thread) {
+			selector.wakeup();
+		}
+	}
+
+	/***
+	 * Runs a task on the loop once the delay has passed. Tasks must be short
+	 * like any other run by the loop.
+	 *
+	 * @param task
+	 *            - task to run
+	 * @param delay
+	 *            - nanoseconds to wait
+	 */
+	void schedule(final Runnable task, final long delay) {
+		final Timer timer = new Timer(task, System.nanoTime() + delay);
+		execute(() -> timers.add(timer));
+	}
+
+	SelectionKey register(final SocketChannel channel, final int ops, final Handler handler)
+			throws ClosedChannelException {
+		return channel.register(selector, ops, handler);
+	}
+
+	/** Lets the selector process cancelled keys, closing their sockets. */
+	void wakeup() {
+		selector.wakeup();
+	}
+
+	void shutdown() {
+		running = false;
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			try {
+				final Timer first = timers.peek();
+				if (first == null) {
+					selector.select();
+				} else {
+					final long wait = first.due - System.nanoTime();
+					if (wait > 0) {
+						// select(0) waits for ever, a timer due within a millisecond waits one
+						selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+					} else {
+						selector.selectNow();
+					}
+				}
+				Runnable task;
+				while ((task = tasks.poll()) != null) {
+					task.run();
+				}
+				final long now = System.nanoTime();
+				while (!timers.isEmpty() && timers.peek().due - now <= 0) {
+					timers.poll().task.run();
+				}
+				final Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+				while (it.hasNext()) {
+					final SelectionKey key = it.next();
+					it.remove();
+					final Object handler = key.attachment();
+					if (key.isValid() && handler != null) {
+						((Handler) handler).ready(key);
+					}
+				}
+			} catch (CancelledKeyException e) {
+				// channel closed by another thread, its exchange already failed
+			} catch (IOException e) {
+				// selector failures are transient, keep serving the other channels
+			} catch (RuntimeException e) {
+				// a faulty task must not stop the loop
+			}
+		}
+		timers.clear();
+		try {
+			for (SelectionKey key : selector.keys()) {
+				key.channel().close();
+			}
+			selector.close();
+		} catch (IOException e) {
+			// shutting down
+		}
+	}
+
+	private static final class Timer implements Comparable<Timer> {
+
+		private final Runnable task;
+
+		/** System.nanoTime() when the task is due. */
+		private final long due;
+
+		private Timer(Runnable task, long due) {
+			this.task = task;
+			this.due = due;
+		}
+
+		@Override
+		public int compareTo(final Timer other) {
+			return Long.signum(due - other.due);
+		}
+	}
+
+}
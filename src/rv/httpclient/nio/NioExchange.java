@@ -0,0 +1,811 @@
+package rv.httpclient.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import rv.httpclient.Exchange;
+import rv.httpclient.HeaderBlock;
+import rv.httpclient.PooledConnection;
+import rv.httpclient.RequestPhase;
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           HTTP/1.1 exchange driven by an {@link NioEventLoop}. The request
+ *           is encoded once and written by the loop, the response is parsed
+ *           into pooled buffers as it arrives. The calling thread only waits
+ *           for the response head and then for body buffers.
+ *           </p>
+ *           <p>
+ *           After {@link #sendAsync(long)} no thread waits at all. The loop
+ *           keeps the body instead of pausing the socket until the caller's
+ *           share arrived, and timers of the loop enforce the timeouts.
+ *           </p>
+ *
+ */
+final class NioExchange implements Exchange, NioEventLoop.Handler {
+
+	private static final String USER_AGENT = "Java/" + System.getProperty("java.version");
+
+	/** Bodies up to this size are sent in one write together with the head. */
+	private static final int BUFFERED_BODY = 64 * 1024;
+
+	private final NioTransport transport;
+
+	private final URL url;
+
+	private final HttpMethod httpMethod;
+
+	private final String host;
+
+	private final int port;
+
+	/** Addresses of the host, resolved by the calling thread before the request is sent. */
+	private InetAddress[] addresses;
+
+	/** Why the host could not be resolved while a pooled connection was used instead. */
+	private IOException unresolved;
+
+	private int addressIndex;
+
+	/** Later values replace earlier ones whatever the case of the name, as with HttpURLConnection. */
+	private final Map<String, String> requestHeaders = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+
+	private HeaderBlock headerBlock = HeaderBlock.EMPTY;
+
+	private final CompletableFuture<Void> head = new CompletableFuture<Void>();
+
+	/** Future of a caller of sendAsync, null for one waiting in awaitHead. */
+	private volatile CompletableFuture<Void> ready;
+
+	/** Body bytes to receive before ready completes. */
+	private volatile long readyBytes;
+
+	/** Body bytes received so far, written by the loop only. */
+	private volatile long bodyReceived;
+
+	private final ResponseParser parser;
+
+	private ByteArrayOutputStream requestBody;
+
+	private long uploadLength;
+
+	private boolean streamingUpload;
+
+	private UploadStream upload;
+
+	private ByteBuffer sending;
+
+	private boolean writePaused;
+
+	private ByteBuffer request;
+
+	private ByteBuffer readBuffer;
+
+	private BodyStream body;
+
+	private volatile NioConnection connection;
+
+	private boolean reused;
+
+	private boolean received;
+
+	private boolean paused;
+
+	private volatile boolean finished;
+
+	private int connectTimeout;
+
+	private int readTimeout;
+
+	private volatile boolean connected;
+
+	/** Time of the last byte sent or received, for the read timeout. */
+	private volatile long lastActivity;
+
+	private volatile boolean closed;
+
+	private volatile long dnsNanos = -1;
+
+	private volatile long connectStart;
+
+	private volatile long connectNanos = -1;
+
+	/** When to give up on the current address for the next one, 0 if it is the last. */
+	private volatile long attemptDeadline;
+
+	NioExchange(NioTransport transport, URL url, HttpMethod httpMethod, NioConnection connection) {
+		this.transport = transport;
+		this.url = url;
+		this.httpMethod = httpMethod == null ? HttpMethod.GET : httpMethod;
+		this.host = url.getHost();
+		this.port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+		this.connection = connection;
+		this.reused = connection != null;
+		this.parser = new ResponseParser(this.httpMethod == HttpMethod.HEAD);
+	}
+
+	@Override
+	public long getPhaseNanos(final RequestPhase phase) {
+		if (connectStart == 0) {
+			return -1;
+		}
+		switch (phase) {
+		case DNS:
+			return dnsNanos;
+		case CONNECT:
+			return connectNanos;
+		default:
+			return -1;
+		}
+	}
+
+	@Override
+	public void setRequestHeader(String key, String value) {
+		if (key != null && headerBlock.contains(key)) {
+			// the block was set earlier, this value replaces its own
+			final HeaderBlock block = headerBlock;
+			headerBlock = HeaderBlock.EMPTY;
+			Exchange.super.setRequestHeaders(block);
+		}
+		requestHeaders.put(key, value);
+	}
+
+	@Override
+	public void setRequestHeaders(HeaderBlock headers) {
+		if (headers.contains("Content-Length")) {
+			// the length is computed from the body, such a block cannot be copied as is
+			Exchange.super.setRequestHeaders(headers);
+		} else {
+			headerBlock = headers;
+		}
+	}
+
+	@Override
+	public void setTimeouts(int connectTimeout, int readTimeout) {
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	@Override
+	public void setContentLength(long length) {
+		if (length >= 0 && length <= BUFFERED_BODY) {
+			requestBody = new ByteArrayOutputStream((int) length);
+		} else {
+			uploadLength = length;
+			streamingUpload = true;
+		}
+	}
+
+	@Override
+	public OutputStream getRequestBody() throws IOException {
+		if (streamingUpload) {
+			if (upload == null) {
+				upload = new UploadStream(this, transport.bodyBuffers(), uploadLength);
+				// the head goes out while the caller produces the body
+				try {
+					request = encode();
+					resolve();
+					connect();
+				} catch (IOException e) {
+					fail(e);
+					throw e;
+				}
+			}
+			return upload;
+		}
+		if (requestBody == null) {
+			requestBody = new ByteArrayOutputStream();
+		}
+		return requestBody;
+	}
+
+	@Override
+	public int getResponseCode() throws IOException {
+		awaitHead();
+		return parser.getStatusCode();
+	}
+
+	@Override
+	public CompletableFuture<Void> sendAsync(final long bodyBytes) {
+		final CompletableFuture<Void> ready = new CompletableFuture<Void>();
+		readyBytes = bodyBytes;
+		this.ready = ready;
+		try {
+			send();
+		} catch (IOException e) {
+			// failed, which completed ready
+			return ready;
+		}
+		// a streamed body sent the request earlier, the head may be here already
+		checkReady();
+		watch();
+		return ready;
+	}
+
+	@Override
+	public String getResponseMessage() throws IOException {
+		awaitHead();
+		return parser.getStatusMessage();
+	}
+
+	@Override
+	public Map<String, List<String>> getResponseHeaders() throws IOException {
+		awaitHead();
+		return parser.getHeaders();
+	}
+
+	@Override
+	public InputStream getResponseBody() throws IOException {
+		awaitHead();
+		return body;
+	}
+
+	@Override
+	public PooledConnection detach() {
+		final NioConnection connection = this.connection;
+		if (finished && !closed && parser.isKeepAlive() && connection != null) {
+			return connection;
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public void close() {
+		close(new IOException("Connection closed."));
+	}
+
+	/** Closes the connection, a reader not yet failed is told the reason. */
+	private void close(final IOException reason) {
+		closed = true;
+		final NioConnection connection = this.connection;
+		if (connection != null) {
+			connection.close();
+		}
+		fail(reason);
+	}
+
+	/** Called by the reader once it drained the body queue. */
+	void resume() {
+		connection.loop.execute(() -> {
+			final SelectionKey key = connection.key;
+			if (paused && !finished && key != null && key.isValid()) {
+				paused = false;
+				key.interestOps(SelectionKey.OP_READ);
+			}
+		});
+	}
+
+	/** Called by the writer once it queued a buffer of the request body. */
+	void resumeWrite() {
+		final NioConnection connection = this.connection;
+		connection.loop.execute(() -> {
+			final SelectionKey key = connection.key;
+			if (writePaused && key != null && key.isValid()) {
+				writePaused = false;
+				key.interestOps(SelectionKey.OP_WRITE);
+			}
+		});
+	}
+
+	/** Encodes the request and hands it to the loop, unless a streamed body already did. */
+	private void send() throws IOException {
+		if (request == null) {
+			try {
+				request = encode();
+				resolve();
+				connect();
+			} catch (IOException e) {
+				fail(e);
+				throw e;
+			}
+		}
+	}
+
+	private void awaitHead() throws IOException {
+		send();
+		try {
+			if (connectTimeout == 0 && readTimeout == 0) {
+				head.get();
+			} else {
+				while (true) {
+					final long left = timeLeft("Read timed out");
+					try {
+						// wakes up at least every second, the connection may complete meanwhile
+						head.get(Math.min(left, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+						break;
+					} catch (TimeoutException e) {
+						// check the timeouts again
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new InterruptedIOException("Interrupted while waiting for the response.");
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		}
+	}
+
+	/***
+	 * Checks the timeouts for a thread waiting on the loop. Until the
+	 * channel is connected the connect timeout counts from the start of the
+	 * connect and an address taking longer than its share is given up for
+	 * the next one. Afterwards the read timeout counts from the last byte
+	 * sent or received. The caller must not hold a lock the loop takes.
+	 *
+	 * @param message
+	 *            - message of the timeout once connected
+	 * @return nanoseconds the caller may wait before checking again
+	 * @throws SocketTimeoutException
+	 *             if a timeout expired, the exchange is then closed
+	 */
+	long timeLeft(final String message) throws SocketTimeoutException {
+		while (true) {
+			final long now = System.nanoTime();
+			if (connected) {
+				final long left = readTimeout == 0 ? Long.MAX_VALUE
+						: lastActivity + TimeUnit.MILLISECONDS.toNanos(readTimeout) - now;
+				if (left <= 0) {
+					final SocketTimeoutException e = new SocketTimeoutException(message);
+					close(e);
+					throw e;
+				}
+				return left;
+			}
+			long left = connectTimeout == 0 ? Long.MAX_VALUE
+					: connectStart + TimeUnit.MILLISECONDS.toNanos(connectTimeout) - now;
+			if (left <= 0) {
+				final SocketTimeoutException e = new SocketTimeoutException("Connect timed out");
+				close(e);
+				throw e;
+			}
+			final long deadline = attemptDeadline;
+			if (deadline != 0) {
+				if (deadline - now <= 0) {
+					failOver(connection, new SocketTimeoutException("Connect timed out"));
+					continue;
+				}
+				left = Math.min(left, deadline - now);
+			}
+			return left;
+		}
+	}
+
+	/**
+	 * Checks the timeouts for a caller of sendAsync, which does not wait in
+	 * awaitHead to do so. Runs on the loop until ready completes.
+	 */
+	private void watch() {
+		final NioConnection connection = this.connection;
+		if (ready.isDone() || connection == null || connectTimeout == 0 && readTimeout == 0) {
+			return;
+		}
+		try {
+			final long left = timeLeft("Read timed out");
+			connection.loop.schedule(this::watch, Math.min(left, TimeUnit.SECONDS.toNanos(1)));
+		} catch (SocketTimeoutException e) {
+			// closed with the timeout as reason, which completed ready
+		}
+	}
+
+	/** Completes the future of sendAsync once enough of the response arrived. */
+	private void checkReady() {
+		final CompletableFuture<Void> ready = this.ready;
+		if (ready != null && head.isDone() && (finished || bodyReceived >= readyBytes)) {
+			ready.complete(null);
+		}
+	}
+
+	private ByteBuffer encode() throws IOException {
+		final StringBuilder sb = new StringBuilder(256);
+		final String file = url.getFile();
+		if (HeaderBlock.hasLineBreak(file)) {
+			throw new IOException("Illegal line break in the request target.");
+		}
+		if (!headerBlock.isWellFormed()) {
+			throw new IOException("Illegal line break in a prepared request header.");
+		}
+		sb.append(httpMethod.name()).append(' ').append(file.isEmpty() ? "/" : file).append(" HTTP/1.1\r\n");
+		// ISO-8859-1 maps one char to one byte, the prepared block goes here
+		final int blockAt = sb.length();
+		if (!hasHeader("Host")) {
+			sb.append("Host: ").append(url.getHost());
+			if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+				sb.append(':').append(url.getPort());
+			}
+			sb.append("\r\n");
+		}
+		if (!hasHeader("User-Agent")) {
+			sb.append("User-Agent: ").append(USER_AGENT).append("\r\n");
+		}
+		if (!hasHeader("Accept")) {
+			sb.append("Accept: */*\r\n");
+		}
+		for (Entry<String, String> header : requestHeaders.entrySet()) {
+			if (!"Content-Length".equalsIgnoreCase(header.getKey()) && !headerBlock.contains(header.getKey())) {
+				final String value = String.valueOf(header.getValue());
+				if (HeaderBlock.hasLineBreak(header.getKey()) || HeaderBlock.hasLineBreak(value)) {
+					throw new IOException("Illegal line break in a request header.");
+				}
+				sb.append(header.getKey()).append(": ").append(value).append("\r\n");
+			}
+		}
+		final int length = requestBody != null ? requestBody.size() : 0;
+		if (upload != null) {
+			if (upload.isChunked()) {
+				sb.append("Transfer-Encoding: chunked\r\n");
+			} else {
+				sb.append("Content-Length: ").append(uploadLength).append("\r\n");
+			}
+		} else if (length > 0 || httpMethod == HttpMethod.POST || httpMethod == HttpMethod.PUT) {
+			sb.append("Content-Length: ").append(length).append("\r\n");
+		}
+		sb.append("\r\n");
+		final byte[] head = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+		final ByteBuffer buffer = ByteBuffer.allocate(head.length + headerBlock.length() + length);
+		buffer.put(head, 0, blockAt);
+		headerBlock.writeTo(buffer);
+		buffer.put(head, blockAt, head.length - blockAt);
+		if (length > 0) {
+			buffer.put(requestBody.toByteArray());
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private boolean hasHeader(final String name) {
+		if (headerBlock.contains(name)) {
+			return true;
+		}
+		return requestHeaders.containsKey(name);
+	}
+
+	private void connect() throws IOException {
+		final NioConnection idle = this.connection;
+		if (idle != null) {
+			connected();
+			idle.loop.execute(() -> start(idle, true));
+			return;
+		}
+		if (addresses == null) {
+			throw unresolved;
+		}
+		connectStart = System.nanoTime();
+		openChannel();
+	}
+
+	/**
+	 * Looks up the host on the calling thread, also for a pooled connection,
+	 * so that a retry over a new connection never resolves on the event loop.
+	 */
+	private void resolve() throws IOException {
+		final long start = System.nanoTime();
+		try {
+			addresses = transport.getResolver().resolve(host);
+		} catch (IOException e) {
+			if (connection == null) {
+				throw e;
+			}
+			// the pooled connection may still serve the request
+			unresolved = e;
+		}
+		dnsNanos = System.nanoTime() - start;
+	}
+
+	/** Connects to the current address, or to the next ones if that fails at once. */
+	private synchronized void openChannel() throws IOException {
+		while (true) {
+			final SocketChannel channel = SocketChannel.open();
+			try {
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+				final long now = System.nanoTime();
+				final int left = addresses.length - addressIndex;
+				attemptDeadline = connectTimeout == 0 || left == 1 ? 0
+						: now + (connectStart + TimeUnit.MILLISECONDS.toNanos(connectTimeout) - now) / left;
+				final boolean connected = channel.connect(new InetSocketAddress(addresses[addressIndex], port));
+				if (connected) {
+					connected();
+				}
+				final NioConnection created = new NioConnection(channel, transport.nextLoop());
+				this.connection = created;
+				if (closed) {
+					created.close();
+					return;
+				}
+				created.loop.execute(() -> start(created, connected));
+				return;
+			} catch (IOException e) {
+				channel.close();
+				if (!nextAddress()) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/***
+	 * Gives up on a connection attempt that failed or took too long and
+	 * connects to the next address of the host.
+	 *
+	 * @param attempt
+	 *            - connection being given up, ignored if it is no longer the
+	 *            current one
+	 * @param e
+	 *            - failure reported if no address is left
+	 */
+	private synchronized void failOver(final NioConnection attempt, final IOException e) {
+		if (attempt == null || attempt != connection || connected || closed) {
+			return;
+		}
+		attemptDeadline = 0;
+		attempt.close();
+		if (!nextAddress()) {
+			fail(e);
+			return;
+		}
+		try {
+			openChannel();
+		} catch (IOException next) {
+			fail(next);
+		}
+	}
+
+	/** Reports the current address as failed and moves to the next one, false if there is none. */
+	private boolean nextAddress() {
+		if (closed) {
+			return false;
+		}
+		transport.getResolver().connectFailed(host, addresses[addressIndex]);
+		if (addressIndex + 1 >= addresses.length) {
+			return false;
+		}
+		addressIndex++;
+		return true;
+	}
+
+	/** Runs on the event loop, registers the channel for this exchange. */
+	private void start(final NioConnection connection, final boolean connected) {
+		if (connection != this.connection) {
+			// given up for another address before it was registered
+			return;
+		}
+		try {
+			SelectionKey key = connection.key;
+			if (key == null) {
+				key = connection.loop.register(connection.channel, 0, this);
+				connection.key = key;
+			} else {
+				key.attach(this);
+			}
+			key.interestOps(connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT);
+		} catch (IOException e) {
+			failOrRetry(e);
+		} catch (CancelledKeyException e) {
+			failOrRetry(new IOException("Connection closed.", e));
+		}
+	}
+
+	@Override
+	public void ready(final SelectionKey key) {
+		final NioConnection connection = this.connection;
+		if (connection == null || connection.key != key) {
+			// an attempt given up for another address
+			return;
+		}
+		try {
+			if (key.isConnectable()) {
+				synchronized (this) {
+					if (connection.channel.finishConnect()) {
+						connected();
+						key.interestOps(SelectionKey.OP_WRITE);
+					}
+				}
+			} else if (key.isWritable()) {
+				write(key);
+			} else if (key.isReadable()) {
+				read(key);
+			}
+		} catch (IOException e) {
+			if (connected) {
+				failOrRetry(e);
+			} else {
+				failOver(connection, e);
+			}
+		} catch (CancelledKeyException e) {
+			if (connected) {
+				failOrRetry(new IOException("Connection closed.", e));
+			} else {
+				failOver(connection, new IOException("Connection closed.", e));
+			}
+		}
+	}
+
+	private void connected() {
+		lastActivity = System.nanoTime();
+		if (connectStart != 0) {
+			connectNanos = lastActivity - connectStart;
+		}
+		connected = true;
+	}
+
+	private void write(final SelectionKey key) throws IOException {
+		lastActivity = System.nanoTime();
+		if (request.hasRemaining()) {
+			connection.channel.write(request);
+			if (request.hasRemaining()) {
+				return;
+			}
+		}
+		if (upload != null) {
+			while (true) {
+				if (sending == null) {
+					sending = upload.poll();
+					if (sending == null) {
+						break;
+					}
+				}
+				connection.channel.write(sending);
+				if (sending.hasRemaining()) {
+					return;
+				}
+				transport.bodyBuffers().release(sending);
+				sending = null;
+			}
+			if (!upload.isDone()) {
+				// wait for the writer, see resumeWrite
+				writePaused = true;
+				key.interestOps(0);
+				return;
+			}
+		}
+		key.interestOps(SelectionKey.OP_READ);
+	}
+
+	private void read(final SelectionKey key) throws IOException {
+		if (readBuffer == null) {
+			readBuffer = transport.readBuffers().acquire();
+		}
+		final int n = connection.channel.read(readBuffer);
+		if (n == -1) {
+			if (head.isDone() && parser.endOfStream()) {
+				finish(key, false);
+			} else {
+				failOrRetry(new IOException("Connection closed before the response was complete."));
+			}
+			return;
+		}
+		if (n == 0) {
+			return;
+		}
+		received = true;
+		lastActivity = System.nanoTime();
+		readBuffer.flip();
+		try {
+			if (!head.isDone()) {
+				if (!parser.parseHead(readBuffer)) {
+					return;
+				}
+				body = new BodyStream(this, transport.bodyBuffers(), readTimeout);
+				head.complete(null);
+				checkReady();
+				if (parser.isComplete()) {
+					finish(key, readBuffer.hasRemaining());
+					return;
+				}
+			}
+			ByteBuffer out = null;
+			ByteBuffer slice;
+			while ((slice = parser.parseBody(readBuffer)) != null) {
+				if (out == null) {
+					out = transport.bodyBuffers().acquire();
+				}
+				out.put(slice);
+			}
+			if (out != null) {
+				out.flip();
+				bodyReceived += out.remaining();
+				body.offer(out);
+				checkReady();
+			}
+			// nobody reads before ready completes, the body is kept until then
+			final CompletableFuture<Void> ready = this.ready;
+			if (parser.isComplete()) {
+				finish(key, readBuffer.hasRemaining());
+			} else if (body.isFull() && (ready == null || ready.isDone())) {
+				paused = true;
+				key.interestOps(0);
+			}
+		} finally {
+			if (readBuffer != null) {
+				readBuffer.compact();
+			}
+		}
+	}
+
+	private void finish(final SelectionKey key, final boolean trailing) {
+		if (trailing) {
+			// bytes beyond the response, the connection is out of sync
+			closed = true;
+		}
+		if (key.isValid()) {
+			key.interestOps(0);
+		}
+		transport.readBuffers().release(readBuffer);
+		readBuffer = null;
+		finished = true;
+		body.complete();
+		checkReady();
+	}
+
+	/**
+	 * A pooled connection the server closed while idle fails before any byte
+	 * of the response arrived, the request is then sent once more over a new
+	 * connection. A streamed body cannot be sent again.
+	 */
+	private void failOrRetry(final IOException e) {
+		if (reused && !received && !closed && upload == null) {
+			reused = false;
+			connection.close();
+			connection = null;
+			request.rewind();
+			try {
+				connect();
+			} catch (IOException retry) {
+				fail(retry);
+			}
+		} else {
+			final NioConnection connection = this.connection;
+			if (connection != null) {
+				connection.close();
+			}
+			fail(e);
+		}
+	}
+
+	private void fail(final IOException e) {
+		if (upload != null) {
+			upload.fail(e);
+		}
+		if (!head.isDone()) {
+			head.completeExceptionally(e);
+		} else if (body != null) {
+			body.fail(e);
+		}
+		final CompletableFuture<Void> ready = this.ready;
+		if (ready != null) {
+			ready.complete(null);
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rv.httpclient.CachingDnsResolver;
+import rv.httpclient.DnsResolver;
+import rv.httpclient.Exchange;
+import rv.httpclient.PooledConnection;
+import rv.httpclient.Transport;
+import rv.httpclient.UrlConnectionTransport;
+import rv.httpclient.util.HttpMethod;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Non-blocking {@link Transport} multiplexing plain HTTP/1.1
+ *           exchanges over a few selector threads. Keep-alive channels are
+ *           pooled by the {@link rv.httpclient.ConnectionPool} like any other
+ *           connection.
+ *           </p>
+ *           <p>
+ *           Only the socket work runs on the selector threads. A synchronous
+ *           request waits for the response head and reads the body on its
+ *           own thread. An asynchronous one holds no thread while the server
+ *           answers, the selector thread completes it once the response is
+ *           received and it is read on
+ *           {@link rv.httpclient.HttpClientConfig#getExecutor()}. Streamed
+ *           responses complete with the head, a request body too large to
+ *           send at once is written by an executor thread.
+ *           </p>
+ *           <p>
+ *           Host names are looked up through a {@link DnsResolver}, by default
+ *           a {@link CachingDnsResolver} of the JVM resolver. A new connection
+ *           tries the addresses of the host in turn, giving each an equal
+ *           share of what is left of the connect timeout.
+ *           </p>
+ *           <p>
+ *           TLS is not handled by this engine, https requests are passed on to
+ *           {@link UrlConnectionTransport}.
+ *           </p>
+ *
+ */
+public final class NioTransport implements Transport {
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private static volatile NioTransport defaultTransport;
+
+	private final NioEventLoop[] loops;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private final BufferPool readBuffers;
+
+	private final BufferPool bodyBuffers;
+
+	private final DnsResolver resolver;
+
+	/***
+	 * Creates an engine with its own selector threads and DNS cache.
+	 *
+	 * @param ioThreads
+	 *            - number of selector threads
+	 * @throws IOException
+	 */
+	public NioTransport(int ioThreads) throws IOException {
+		this(ioThreads, new CachingDnsResolver());
+	}
+
+	/***
+	 * Creates an engine with its own selector threads.
+	 *
+	 * @param ioThreads
+	 *            - number of selector threads
+	 * @param resolver
+	 *            - looks up the addresses of hosts
+	 * @throws IOException
+	 */
+	public NioTransport(int ioThreads, DnsResolver resolver) throws IOException {
+		if (resolver == null) {
+			throw new IllegalArgumentException("Resolver must not be null.");
+		}
+		this.resolver = resolver;
+		this.loops = new NioEventLoop[Math.max(1, ioThreads)];
+		for (int i = 0; i < loops.length; i++) {
+			loops[i] = new NioEventLoop("httpclient-nio-" + (i + 1));
+		}
+		this.readBuffers = new BufferPool(BUFFER_SIZE, loops.length * 64, true);
+		this.bodyBuffers = new BufferPool(BUFFER_SIZE, 1024, false);
+	}
+
+	/** Shared engine with one selector thread per two cores. */
+	public static NioTransport getDefault() {
+		NioTransport transport = defaultTransport;
+		if (transport == null) {
+			synchronized (NioTransport.class) {
+				if (defaultTransport == null) {
+					try {
+						defaultTransport = new NioTransport(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+					} catch (IOException e) {
+						throw new IllegalStateException("Failed to open NIO selector.", e);
+					}
+				}
+				transport = defaultTransport;
+			}
+		}
+		return transport;
+	}
+
+	@Override
+	public Exchange open(final URL url, final HttpMethod httpMethod, final PooledConnection idle) throws IOException {
+		if (!"http".equalsIgnoreCase(url.getProtocol())) {
+			return UrlConnectionTransport.INSTANCE.open(url, httpMethod, idle);
+		}
+		NioConnection connection = null;
+		if (idle instanceof NioConnection) {
+			connection = (NioConnection) idle;
+		} else if (idle != null) {
+			idle.close();
+		}
+		return new NioExchange(this, url, httpMethod, connection);
+	}
+
+	public DnsResolver getResolver() {
+		return resolver;
+	}
+
+	/** Stops the selector threads and closes their channels. */
+	public void shutdown() {
+		for (NioEventLoop loop : loops) {
+			loop.shutdown();
+		}
+	}
+
+	NioEventLoop nextLoop() {
+		return loops[(next.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+	}
+
+	BufferPool readBuffers() {
+		return readBuffers;
+	}
+
+	BufferPool bodyBuffers() {
+		return bodyBuffers;
+	}
+
+}
@@ -0,0 +1,299 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import rv.httpclient.ResponseHeaders;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Incremental HTTP/1.1 response parser. Bytes are fed as they
+ *           arrive, the head is parsed first and the body is then handed out
+ *           as slices of the input with chunked framing removed.
+ *           </p>
+ *
+ */
+final class ResponseParser {
+
+	private static final int MAX_LINE = 64 * 1024;
+
+	private enum State {
+		STATUS_LINE, HEADERS, BODY_FIXED, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS, BODY_EOF, DONE
+	}
+
+	private final boolean headRequest;
+
+	private final StringBuilder line = new StringBuilder(128);
+
+	private State state = State.STATUS_LINE;
+
+	private String statusLine;
+
+	private String[] names = new String[16];
+
+	private String[] values = new String[16];
+
+	private int headerCount;
+
+	private ResponseHeaders headers;
+
+	private int statusCode;
+
+	private String statusMessage;
+
+	private long contentLength = -1;
+
+	private boolean chunked;
+
+	private boolean keepAlive;
+
+	private long remaining;
+
+	ResponseParser(boolean headRequest) {
+		this.headRequest = headRequest;
+	}
+
+	int getStatusCode() {
+		return statusCode;
+	}
+
+	String getStatusMessage() {
+		return statusMessage;
+	}
+
+	/** Headers of the final response, null until the head is parsed. */
+	ResponseHeaders getHeaders() {
+		return headers;
+	}
+
+	/** Whether the connection may carry another request once the body is read. */
+	boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	boolean isComplete() {
+		return state == State.DONE;
+	}
+
+	/***
+	 * Consumes the status line and headers.
+	 *
+	 * @return true once the head is complete, false if more input is needed
+	 */
+	boolean parseHead(final ByteBuffer in) throws IOException {
+		while (state == State.STATUS_LINE || state == State.HEADERS) {
+			if (!readLine(in)) {
+				return false;
+			}
+			if (state == State.STATUS_LINE) {
+				if (line.length() > 0) {
+					parseStatusLine();
+					state = State.HEADERS;
+				}
+			} else if (line.length() > 0) {
+				parseHeader();
+			} else {
+				endOfHead();
+			}
+			line.setLength(0);
+		}
+		return true;
+	}
+
+	/***
+	 * Consumes body bytes.
+	 *
+	 * @return next slice of body content, or null if more input is needed or
+	 *         the body is complete
+	 */
+	ByteBuffer parseBody(final ByteBuffer in) throws IOException {
+		while (true) {
+			switch (state) {
+			case BODY_FIXED:
+			case CHUNK_DATA:
+				if (!in.hasRemaining()) {
+					return null;
+				}
+				final ByteBuffer data = slice(in, (int) Math.min(remaining, in.remaining()));
+				remaining -= data.remaining();
+				if (remaining == 0) {
+					state = state == State.BODY_FIXED ? State.DONE : State.CHUNK_END;
+				}
+				return data;
+			case BODY_EOF:
+				return in.hasRemaining() ? slice(in, in.remaining()) : null;
+			case CHUNK_SIZE:
+				if (!readLine(in)) {
+					return null;
+				}
+				remaining = parseChunkSize();
+				state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+				line.setLength(0);
+				break;
+			case CHUNK_END:
+				if (!readLine(in)) {
+					return null;
+				}
+				state = State.CHUNK_SIZE;
+				line.setLength(0);
+				break;
+			case TRAILERS:
+				if (!readLine(in)) {
+					return null;
+				}
+				if (line.length() == 0) {
+					state = State.DONE;
+				}
+				line.setLength(0);
+				break;
+			default:
+				return null;
+			}
+		}
+	}
+
+	/***
+	 * Signals end of stream.
+	 *
+	 * @return true if the body was delimited by the connection close and is
+	 *         now complete
+	 */
+	boolean endOfStream() {
+		if (state == State.BODY_EOF) {
+			state = State.DONE;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean readLine(final ByteBuffer in) throws IOException {
+		while (in.hasRemaining()) {
+			final char c = (char) (in.get() & 0xff);
+			if (c == '\n') {
+				final int last = line.length() - 1;
+				if (last >= 0 && line.charAt(last) == '\r') {
+					line.setLength(last);
+				}
+				return true;
+			}
+			if (line.length() == MAX_LINE) {
+				throw new IOException("Response line exceeds " + MAX_LINE + " bytes.");
+			}
+			line.append(c);
+		}
+		return false;
+	}
+
+	private void parseStatusLine() throws IOException {
+		final String status = line.toString();
+		final int first = status.indexOf(' ');
+		if (!status.startsWith("HTTP/") || first < 0) {
+			throw new IOException("Malformed status line: " + status);
+		}
+		final int second = status.indexOf(' ', first + 1);
+		try {
+			statusCode = Integer.parseInt(second < 0 ? status.substring(first + 1) : status.substring(first + 1, second));
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed status line: " + status, e);
+		}
+		statusMessage = second < 0 ? "" : status.substring(second + 1);
+		keepAlive = status.startsWith("HTTP/1.1");
+		statusLine = status;
+	}
+
+	private void parseHeader() {
+		final int colon = line.indexOf(":");
+		int nameEnd = colon;
+		while (nameEnd > 0 && line.charAt(nameEnd - 1) <= ' ') {
+			nameEnd--;
+		}
+		if (nameEnd <= 0) {
+			return;
+		}
+		final String name = ResponseHeaders.canonicalName(line, 0, nameEnd);
+		final String value = line.substring(colon + 1).trim();
+		if (headerCount == names.length) {
+			names = Arrays.copyOf(names, headerCount * 2);
+			values = Arrays.copyOf(values, headerCount * 2);
+		}
+		names[headerCount] = name;
+		values[headerCount] = value;
+		headerCount++;
+		if ("Content-Length".equalsIgnoreCase(name)) {
+			try {
+				contentLength = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				contentLength = -1;
+			}
+		} else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+			chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+		} else if ("Connection".equalsIgnoreCase(name)) {
+			final String token = value.toLowerCase(Locale.ROOT);
+			if (token.contains("close")) {
+				keepAlive = false;
+			} else if (token.contains("keep-alive")) {
+				keepAlive = true;
+			}
+		}
+	}
+
+	private void endOfHead() {
+		if (statusCode >= 100 && statusCode < 200 && statusCode != 101) {
+			// interim response, the final one follows on the same connection
+			Arrays.fill(names, 0, headerCount, null);
+			Arrays.fill(values, 0, headerCount, null);
+			headerCount = 0;
+			contentLength = -1;
+			chunked = false;
+			state = State.STATUS_LINE;
+			return;
+		}
+		headers = ResponseHeaders.of(statusLine, names, values, headerCount);
+		if (statusCode == 101) {
+			keepAlive = false;
+		}
+		if (headRequest || statusCode == 204 || statusCode == 304 || statusCode == 101) {
+			state = State.DONE;
+		} else if (chunked) {
+			state = State.CHUNK_SIZE;
+		} else if (contentLength >= 0) {
+			remaining = contentLength;
+			state = contentLength == 0 ? State.DONE : State.BODY_FIXED;
+		} else {
+			keepAlive = false;
+			state = State.BODY_EOF;
+		}
+	}
+
+	private long parseChunkSize() throws IOException {
+		int end = line.indexOf(";");
+		if (end < 0) {
+			end = line.length();
+		}
+		final String size = line.substring(0, end).trim();
+		// parseLong would take a sign, a negative size would run the parser backwards
+		if (size.isEmpty() || Character.digit(size.charAt(0), 16) < 0) {
+			throw new IOException("Malformed chunk size: " + line);
+		}
+		try {
+			return Long.parseLong(size, 16);
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed chunk size: " + line, e);
+		}
+	}
+
+	private static ByteBuffer slice(final ByteBuffer in, final int length) {
+		final ByteBuffer data = in.duplicate();
+		data.limit(in.position() + length);
+		in.position(in.position() + length);
+		return data;
+	}
+
+}
@@ -0,0 +1,221 @@
+package rv.httpclient.nio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ *
+ *           <p>
+ *           Request body written by the calling thread and sent by the event
+ *           loop. Filled buffers are queued for the loop, the writer blocks
+ *           once {@link #HIGH_WATER} buffers are waiting so an upload of any
+ *           size only holds a few buffers. While it waits the connect and
+ *           read timeouts of the exchange apply.
+ *           </p>
+ *           <p>
+ *           A body of unknown length is framed as chunks, each buffer keeps
+ *           room for the chunk size in front and the line end behind.
+ *           </p>
+ *
+ */
+final class UploadStream extends OutputStream {
+
+	static final int HIGH_WATER = 4;
+
+	/** Four hex digits and CRLF, enough for a chunk of one buffer. */
+	private static final int CHUNK_HEAD = 6;
+
+	private static final int CHUNK_TAIL = 2;
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.ISO_8859_1);
+
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+	private final NioExchange exchange;
+
+	private final BufferPool buffers;
+
+	private final long length;
+
+	private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<ByteBuffer>();
+
+	private ByteBuffer current;
+
+	private long written;
+
+	private boolean closed;
+
+	private IOException failure;
+
+	/** Whether the writer was already told of the failure, closing then does not repeat it. */
+	private boolean reported;
+
+	UploadStream(NioExchange exchange, BufferPool buffers, long length) {
+		this.exchange = exchange;
+		this.buffers = buffers;
+		this.length = length;
+	}
+
+	boolean isChunked() {
+		return length < 0;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed.");
+		}
+		if (length >= 0 && written + len > length) {
+			throw new IOException("Request body is longer than its Content-Length " + length + ".");
+		}
+		written += len;
+		while (len > 0) {
+			if (current == null) {
+				current = buffers.acquire();
+				if (isChunked()) {
+					current.position(CHUNK_HEAD);
+					current.limit(current.capacity() - CHUNK_TAIL);
+				}
+			}
+			final int n = Math.min(len, current.remaining());
+			current.put(b, off, n);
+			off += n;
+			len -= n;
+			if (!current.hasRemaining()) {
+				send();
+			}
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (current != null && !closed) {
+			send();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (reported) {
+				// e.g. closed in a finally block, the original failure stays the one thrown
+				closed = true;
+			}
+		}
+		if (closed) {
+			return;
+		}
+		if (current != null) {
+			send();
+		}
+		if (length >= 0 && written != length) {
+			closed = true;
+			exchange.close();
+			throw new IOException("Request body is shorter than its Content-Length " + length + ".");
+		}
+		if (isChunked()) {
+			offer(ByteBuffer.wrap(LAST_CHUNK));
+		}
+		synchronized (this) {
+			closed = true;
+		}
+		exchange.resumeWrite();
+	}
+
+	/** Next buffer to write, called by the event loop. */
+	synchronized ByteBuffer poll() {
+		final ByteBuffer buffer = queue.poll();
+		if (buffer != null) {
+			notifyAll();
+		}
+		return buffer;
+	}
+
+	/** Whether the writer closed the stream and every buffer was taken. */
+	synchronized boolean isDone() {
+		return closed && queue.isEmpty();
+	}
+
+	synchronized void fail(final IOException e) {
+		failure = e;
+		ByteBuffer buffer;
+		while ((buffer = queue.poll()) != null) {
+			buffers.release(buffer);
+		}
+		notifyAll();
+	}
+
+	private void send() throws IOException {
+		final ByteBuffer buffer = current;
+		current = null;
+		if (isChunked()) {
+			final int size = buffer.position() - CHUNK_HEAD;
+			if (size == 0) {
+				buffers.release(buffer);
+				return;
+			}
+			buffer.limit(buffer.capacity());
+			buffer.put((byte) '\r').put((byte) '\n');
+			buffer.put(0, HEX[(size >> 12) & 0xF]).put(1, HEX[(size >> 8) & 0xF]).put(2, HEX[(size >> 4) & 0xF])
+					.put(3, HEX[size & 0xF]).put(4, (byte) '\r').put(5, (byte) '\n');
+		}
+		buffer.flip();
+		offer(buffer);
+		exchange.resumeWrite();
+	}
+
+	/** Queues a buffer, waiting while the queue is full as long as the timeouts of the exchange allow. */
+	private void offer(final ByteBuffer buffer) throws IOException {
+		while (true) {
+			synchronized (this) {
+				if (failure != null) {
+					buffers.release(buffer);
+					reported = true;
+					throw new IOException(failure.getMessage(), failure);
+				}
+				if (queue.size() < HIGH_WATER) {
+					queue.offer(buffer);
+					return;
+				}
+			}
+			final long left;
+			try {
+				// outside the lock, a failover to the next address fails this stream
+				left = exchange.timeLeft("Write timed out");
+			} catch (SocketTimeoutException e) {
+				buffers.release(buffer);
+				synchronized (this) {
+					reported = true;
+				}
+				throw e;
+			}
+			synchronized (this) {
+				if (failure == null && queue.size() >= HIGH_WATER) {
+					try {
+						wait(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMillis(left), 1000)));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						buffers.release(buffer);
+						throw new InterruptedIOException("Interrupted while sending the request body.");
+					}
+				}
+			}
+		}
+	}
+
+}
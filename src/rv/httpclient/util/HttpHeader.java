@@ -21,7 +21,25 @@ public enum HttpHeader {
 
 	CONTENT_TYPE("content-type"),
 
-	CACHE_CONTROL("cache-control");
+	CACHE_CONTROL("cache-control"),
+
+	AGE("age"),
+
+	DATE("date"),
+
+	ETAG("etag"),
+
+	EXPIRES("expires"),
+
+	IF_MODIFIED_SINCE("if-modified-since"),
+
+	IF_NONE_MATCH("if-none-match"),
+
+	LAST_MODIFIED("last-modified"),
+
+	RETRY_AFTER("retry-after"),
+
+	VARY("vary");
 
 	private String header;
 
@@ -1,8 +1,17 @@
 package rv.httpclient.util;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.lang.reflect.Type;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -10,6 +19,12 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.PropertyException;
 import javax.xml.bind.Unmarshaller;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
 import rv.httpclient.HttpClientException;
 
 /**
@@ -26,6 +41,21 @@ import rv.httpclient.HttpClientException;
 public final class HttpHelper {
 	
 	private static final String ERROR_MSG = "There was some problem while performing requested operation.";
+
+	private static final String JSON_ERROR_MSG = "Failed to parse response to construct JSON.";
+
+	/** Gson is thread-safe, one instance serves every request. */
+	private static final Gson GSON = new Gson();
+
+	private static final int MAX_POOLED_MARSHALLERS = 32;
+
+	private static final ConcurrentMap<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<Class<?>, JAXBContext>();
+
+	private static final ConcurrentMap<Class<?>, Queue<Marshaller>> MARSHALLERS = new ConcurrentHashMap<Class<?>, Queue<Marshaller>>();
+
+	private static final ConcurrentMap<Class<?>, Queue<Unmarshaller>> UNMARSHALLERS = new ConcurrentHashMap<Class<?>, Queue<Unmarshaller>>();
+
+	private static final ConcurrentMap<Type, TypeAdapter<?>> JSON_ADAPTERS = new ConcurrentHashMap<Type, TypeAdapter<?>>();
 	
 	/**
 	 * Method to get encoded Authorization header based on Client ID & Client Secret.
@@ -66,12 +96,27 @@ public final class HttpHelper {
 	 * @throws HttpClientException
 	 * */
 	public static <T> String constructXMLRequest(T t) throws HttpClientException {
+		return constructXMLRequest(t, true);
+	}
+
+	/**
+	 * Use this method to transform Java POJO object to a String.
+	 * @param t - Java POJO Object
+	 * @param formatted - indent the output, leave it off to keep requests small
+	 * @return String object
+	 * @throws HttpClientException
+	 * */
+	public static <T> String constructXMLRequest(T t, boolean formatted) throws HttpClientException {
 		final StringWriter sw = new StringWriter();
+		final Class<?> type = t.getClass();
 		try {
-			final JAXBContext requestContext = JAXBContext.newInstance(t.getClass());
-			final Marshaller marshaller = requestContext.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);		
-			marshaller.marshal(t, sw);
+			final Marshaller marshaller = borrowMarshaller(type);
+			try {
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+				marshaller.marshal(t, sw);
+			} finally {
+				giveBack(MARSHALLERS, type, marshaller);
+			}
 		} catch(PropertyException e) {
 			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, ERROR_MSG, e);
 		} catch(JAXBException e) {
@@ -84,10 +129,12 @@ public final class HttpHelper {
 	public static <T> T constructXMLResponse(Class<T> t, String response) throws HttpClientException {
 		if(response != null && !response.isEmpty()) {
 			try {
-				JAXBContext respContext = JAXBContext.newInstance(t);
-				Unmarshaller unmarshaller = respContext.createUnmarshaller();
-				StringReader reader = new StringReader(response.toString());
-				return (T) unmarshaller.unmarshal(reader);
+				final Unmarshaller unmarshaller = borrowUnmarshaller(t);
+				try {
+					return (T) unmarshaller.unmarshal(new StringReader(response));
+				} finally {
+					giveBack(UNMARSHALLERS, t, unmarshaller);
+				}
 			} catch (JAXBException e) {
 				throw new HttpClientException(ResponseCode.RUNTIME_ERROR, ERROR_MSG, e);
 			}
@@ -95,4 +142,114 @@ public final class HttpHelper {
 		return null;
 	}
 
+	/**
+	 * Use this method to transform a XML document to a Java POJO object while
+	 * it is read, the encoding is taken from the XML declaration.
+	 * @param t - class of the Java POJO Object
+	 * @param response - XML document
+	 * @return Java POJO Object
+	 * @throws HttpClientException
+	 * */
+	@SuppressWarnings("unchecked")
+	public static <T> T constructXMLResponse(Class<T> t, InputStream response) throws HttpClientException {
+		try {
+			final Unmarshaller unmarshaller = borrowUnmarshaller(t);
+			try {
+				return (T) unmarshaller.unmarshal(response);
+			} finally {
+				giveBack(UNMARSHALLERS, t, unmarshaller);
+			}
+		} catch (JAXBException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, ERROR_MSG, e);
+		}
+	}
+
+	/**
+	 * JAXBContext is thread-safe and expensive to build, it is created once per class.
+	 * */
+	private static JAXBContext getJAXBContext(Class<?> type) throws JAXBException {
+		JAXBContext context = JAXB_CONTEXTS.get(type);
+		if(context == null) {
+			context = JAXBContext.newInstance(type);
+			final JAXBContext existing = JAXB_CONTEXTS.putIfAbsent(type, context);
+			if(existing != null) {
+				context = existing;
+			}
+		}
+		return context;
+	}
+
+	private static Marshaller borrowMarshaller(Class<?> type) throws JAXBException {
+		final Marshaller marshaller = borrow(MARSHALLERS, type);
+		return marshaller != null ? marshaller : getJAXBContext(type).createMarshaller();
+	}
+
+	private static Unmarshaller borrowUnmarshaller(Class<?> type) throws JAXBException {
+		final Unmarshaller unmarshaller = borrow(UNMARSHALLERS, type);
+		return unmarshaller != null ? unmarshaller : getJAXBContext(type).createUnmarshaller();
+	}
+
+	/**
+	 * Marshallers are not thread-safe, each one is used by a single request
+	 * at a time and kept for the next one.
+	 * */
+	private static <M> M borrow(ConcurrentMap<Class<?>, Queue<M>> pool, Class<?> type) {
+		final Queue<M> idle = pool.get(type);
+		return idle != null ? idle.poll() : null;
+	}
+
+	private static <M> void giveBack(ConcurrentMap<Class<?>, Queue<M>> pool, Class<?> type, M instance) {
+		Queue<M> idle = pool.get(type);
+		if(idle == null) {
+			idle = new ArrayBlockingQueue<M>(MAX_POOLED_MARSHALLERS);
+			final Queue<M> existing = pool.putIfAbsent(type, idle);
+			if(existing != null) {
+				idle = existing;
+			}
+		}
+		idle.offer(instance);
+	}
+
+	/**
+	 * Shared Gson instance used to bind JSON responses.
+	 * */
+	public static Gson getGson() {
+		return GSON;
+	}
+
+	/**
+	 * Use this method to bind a JSON document to a Java type while it is read,
+	 * without building an intermediate String or JSON tree.
+	 * @param type - class or generic type to bind to, e.g. a POJO, a
+	 * 	JsonElement or a collection type
+	 * @param reader - JSON document
+	 * @return bound object, null if the document is empty
+	 * @throws HttpClientException
+	 * */
+	@SuppressWarnings("unchecked")
+	public static <T> T constructJsonResponse(Type type, Reader reader) throws HttpClientException {
+		TypeAdapter<T> adapter = (TypeAdapter<T>) JSON_ADAPTERS.get(type);
+		if(adapter == null) {
+			adapter = (TypeAdapter<T>) GSON.getAdapter(TypeToken.get(type));
+			JSON_ADAPTERS.putIfAbsent(type, adapter);
+		}
+		final JsonReader jsonReader = new JsonReader(reader);
+		try {
+			jsonReader.peek();
+		} catch(EOFException e) {
+			return null;
+		} catch(IOException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, JSON_ERROR_MSG, e);
+		}
+		try {
+			return adapter.read(jsonReader);
+		} catch(IOException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, JSON_ERROR_MSG, e);
+		} catch(JsonParseException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, JSON_ERROR_MSG, e);
+		} catch(IllegalStateException e) {
+			throw new HttpClientException(ResponseCode.RUNTIME_ERROR, JSON_ERROR_MSG, e);
+		}
+	}
+
 }
@@ -17,7 +17,11 @@ public enum ResponseCode {
 
 	VALIDATION_ERROR(002),
 
-	RUNTIME_ERROR(003);
+	RUNTIME_ERROR(003),
+
+	TIMEOUT(004),
+
+	CIRCUIT_OPEN(005);
 
 	private int code;
 
@@ -0,0 +1,64 @@
+package rv.httpclient.util;
+
+import rv.httpclient.HttpAck;
+import rv.httpclient.HttpResponse;
+
+/**
+ * @author Ravin Vasudev
+ * @version 1.0
+ * @since October 2026
+ * @category HTTP Client
+ * 
+ *           <p>
+ *           Outcome of validating the parameters of a single request. The
+ *           result is immutable, every failed check returns a new result
+ *           carrying the accumulated messages while a valid request keeps the
+ *           shared {@link #VALID} instance and allocates nothing.
+ *           </p>
+ *
+ */
+public final class ValidationResult {
+
+	public static final ValidationResult VALID = new ValidationResult(null);
+
+	private final String message;
+
+	private ValidationResult(String message) {
+		this.message = message;
+	}
+
+	public boolean isError() {
+		return message != null;
+	}
+
+	/** Accumulated validation messages, null if the request is valid. */
+	public String getMessage() {
+		return message;
+	}
+
+	ValidationResult add(String error) {
+		return new ValidationResult(message == null ? error : message + error);
+	}
+
+	/**
+	 * Response returned to the caller instead of executing an invalid request.
+	 */
+	public HttpResponse getErrors() {
+		if (isError()) {
+			final HttpResponse httpResponse = new HttpResponse();
+			final HttpAck ack = httpResponse.getHttpAck();
+			ack.setStatus(Status.FAILURE);
+			ack.setErrorType(ResponseCode.VALIDATION_ERROR);
+			ack.setErrorCode(ResponseCode.VALIDATION_ERROR.get());
+			ack.setErrorMessage(message);
+			return httpResponse;
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ValidationResult [error=%s, message=%s]", isError(), message);
+	}
+
+}
@@ -4,8 +4,7 @@ import java.util.Map;
 
 import com.google.gson.JsonObject;
 
-import rv.httpclient.HttpAck;
-import rv.httpclient.HttpResponse;
+import rv.httpclient.RequestBody;
 
 /**
  * @author Ravin Vasudev
@@ -14,11 +13,13 @@ import rv.httpclient.HttpResponse;
  * @category HTTP Client
  * 
  * 	<p>
- * 		
+ * 		Stateless checks of request parameters. Each check takes the result of
+ * 		the previous one and returns it unchanged when the parameter is valid,
+ * 		so one request never sees the errors of another.
  * 	</p>
  *
  */
-public class Validator {
+public final class Validator {
 	
 	public enum Key {
 		
@@ -44,66 +45,56 @@ public class Validator {
 
 	}
 	
-	private static StringBuilder message = new StringBuilder();
-	private static boolean error = Boolean.FALSE;
+	private Validator() {
+		
+	}
 	
-	public static void validateParam(Key paramName, String paramValue) {
+	public static ValidationResult validateParam(ValidationResult result, Key paramName, String paramValue) {
 		if(paramValue == null || paramValue.isEmpty()) {
-			message.append(String.format(" [Parameter<%s> cannot be left empty.] ", paramName.get()));
-			error = Boolean.TRUE;
+			return result.add(String.format(" [Parameter<%s> cannot be left empty.] ", paramName.get()));
 		}
+		return result;
 	}
 	
-	public static void validateParam(Key paramName, JsonObject paramValue) {
+	public static ValidationResult validateParam(ValidationResult result, Key paramName, JsonObject paramValue) {
 		if(paramValue == null || paramValue.isJsonNull()) {
-			message.append(String.format(" [Parameter<%s> cannot be left empty.] ", paramName.get()));
-			error = Boolean.TRUE;
+			return result.add(String.format(" [Parameter<%s> cannot be left empty.] ", paramName.get()));
+		}
+		return result;
+	}
+
+	public static ValidationResult validateParam(ValidationResult result, Key paramName, RequestBody paramValue) {
+		if(paramValue == null) {
+			return result.add(String.format(" [Parameter<%s> cannot be left empty.] ", paramName.get()));
 		}
+		return result;
 	}
 
-	public static void validateSpecialParam(Key paramName, HttpMethod paramValue) {
-		if(paramName.equals(Key.HTTP_METHOD)) {
-			if(paramValue == null) {
-				paramValue = HttpMethod.GET;
-			} else {
-				switch(paramValue) {
-					case GET:
-					case POST:
-					case PUT:
-					case DELETE:
-					case OPTIONS:
-					case HEAD:
-						break;
-					default:
-						message.append(String.format(" [Parameter<%s> is not valid.] ", paramName));
-						error = Boolean.TRUE;
-				}
+	public static ValidationResult validateSpecialParam(ValidationResult result, Key paramName, HttpMethod paramValue) {
+		if(paramName.equals(Key.HTTP_METHOD) && paramValue != null) {
+			switch(paramValue) {
+				case GET:
+				case POST:
+				case PUT:
+				case DELETE:
+				case OPTIONS:
+				case HEAD:
+					break;
+				default:
+					return result.add(String.format(" [Parameter<%s> is not valid.] ", paramName));
 			}
 		}
+		return result;
 	}
 
-	public static void validateHeaders(Key paramName, Map<HttpHeader, String> headerMap) {
+	public static ValidationResult validateHeaders(ValidationResult result, Key paramName, Map<String, String> headerMap) {
 		//do nothing
+		return result;
 	}
 	
-	public static void validateQueryParam(Key queryParam, Map<String, String> queryParams) {
+	public static ValidationResult validateQueryParam(ValidationResult result, Key queryParam, Map<String, String> queryParams) {
 		//do nothing
+		return result;
 	}
 
-	public static boolean isError() {
-		return error;
-	}
-
-	public static HttpResponse getErrors() {
-		if(isError()) {
-			final HttpResponse httpResponse = new HttpResponse();
-			final HttpAck ack = httpResponse.getHttpAck();
-			ack.setStatus(Status.FAILURE);
-			ack.setErrorType(ResponseCode.VALIDATION_ERROR);
-			ack.setErrorCode(ResponseCode.VALIDATION_ERROR.get());
-			ack.setErrorMessage(message.toString());
-			return httpResponse;
-		}
-		return null;
-	}
 }